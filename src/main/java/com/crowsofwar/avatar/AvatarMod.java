@@ -44,6 +44,7 @@ import com.crowsofwar.avatar.common.command.AvatarCommand;
 import com.crowsofwar.avatar.common.config.*;
 import com.crowsofwar.avatar.common.controls.AvatarControl;
 import com.crowsofwar.avatar.common.data.AvatarPlayerData;
+import com.crowsofwar.avatar.common.data.PlayerDataSyncHandler;
 import com.crowsofwar.avatar.common.entity.*;
 import com.crowsofwar.avatar.common.entity.data.*;
 import com.crowsofwar.avatar.common.entity.mob.*;
@@ -159,6 +160,7 @@ public class AvatarMod {
 		network.registerMessage(PacketSCycleBending.Handler.class, PacketSCycleBending.class, nextMessageID++, Side.SERVER);
 		network.registerMessage(PacketCPowerRating.Handler.class, PacketCPowerRating.class, nextMessageID++, Side.CLIENT);
 		network.registerMessage(PacketCOpenSkillCard.Handler.class, PacketCOpenSkillCard.class, nextMessageID++, Side.CLIENT);
+		network.registerMessage(PacketCNetworkIds.Handler.class, PacketCNetworkIds.class, nextMessageID++, Side.CLIENT);
 		AvatarLog.info("Registered " + nextMessageID + " packet types");
 
 		NetworkRegistry.INSTANCE.registerGuiHandler(this, new AvatarGuiHandler());
@@ -247,6 +249,12 @@ public class AvatarMod {
 		e.registerServerCommand(new AvatarCommand());
 	}
 
+	@EventHandler
+	public void onServerStopping(FMLServerStoppingEvent e) {
+		// Make sure changes from the final tick are marked dirty before worlds are saved
+		PlayerDataSyncHandler.flush();
+	}
+
 	private void registerEntity(Class<? extends Entity> entity, String name) {
 		EntityRegistry.registerModEntity(new ResourceLocation("avatarmod", name), entity, name, nextEntityID++, this, 128, 3, true);
 	}
@@ -32,6 +32,7 @@ import com.crowsofwar.avatar.*;
 import com.crowsofwar.avatar.AvatarLog.WarningType;
 import com.crowsofwar.avatar.client.gui.AvatarUiRenderer;
 import com.crowsofwar.avatar.common.bending.*;
+import com.crowsofwar.avatar.common.config.ConfigClient;
 import com.crowsofwar.avatar.common.controls.*;
 import com.crowsofwar.avatar.common.data.BendingData;
 import com.crowsofwar.avatar.common.network.packets.*;
@@ -53,21 +54,52 @@ import static com.crowsofwar.avatar.common.controls.AvatarControl.*;
 @SideOnly(Side.CLIENT)
 public class ClientInput implements IControlsHandler {
 
+	/**
+	 * Indices of the mouse buttons and keys which are sampled every tick, in {@link #inputDown}
+	 */
+	private static final int INPUT_LEFT = 0, INPUT_RIGHT = 1, INPUT_MIDDLE = 2, INPUT_SPACE = 3;
+
 	private final Minecraft mc;
 	/**
 	 * A list of all bending controllers which can be activated by keyboard
 	 */
 	private final List<BendingStyle> keyboardBending;
-	private final boolean[] wasAbilityDown;
 	private GameSettings gameSettings;
 	private Map<String, KeyBinding> keybindings;
-	private boolean mouseLeft, mouseRight, mouseMiddle, space;
-	private boolean wasLeft, wasRight, wasMiddle, wasSpace;
-	private boolean press;
+	/**
+	 * Which inputs are currently down, and which inputs were down during the previous tick. The
+	 * difference between these is used to find out when an input was just pressed or released.
+	 */
+	private final BitSet inputDown, inputWasDown;
+	/**
+	 * Controls which were pressed this tick, by {@link AvatarControl#getIndex() index}
+	 */
+	private final BitSet pressedControls;
+	/**
+	 * Abilities whose keys are held down, by their position in {@link Abilities#all()}
+	 */
+	private final BitSet abilitiesDown;
+
+	/**
+	 * Abilities which have a key assigned to them, along with the key codes, their positions in
+	 * {@link Abilities#all()}, and whether their keys conflict with another keybinding. Updated
+	 * whenever the keymappings change, so that keymappings don't need to be looked up every tick.
+	 */
+	private Ability[] boundAbilities;
+	private int[] boundKeys, boundAbilityIds;
+	private boolean[] boundConflicts;
+	private int keymappingsVersion;
+	private int abilitiesCount;
+
+	/**
+	 * Raytraces which have already been performed this tick. Shared by all controls and abilities
+	 * with equivalent raytrace information.
+	 */
+	private final List<Raytrace.Info> tickRaytraceInfos;
+	private final List<Raytrace.Result> tickRaytraces;
 
 	public ClientInput() {
 		gameSettings = Minecraft.getMinecraft().gameSettings;
-		mouseLeft = mouseRight = mouseMiddle = wasLeft = wasRight = wasMiddle = false;
 		mc = Minecraft.getMinecraft();
 
 		keybindings = new HashMap();
@@ -79,7 +111,19 @@ public class ClientInput implements IControlsHandler {
 		addKeybinding("Skills", Keyboard.KEY_K, "main");
 		addKeybinding("TransferBison", Keyboard.KEY_O, "main");
 
-		wasAbilityDown = new boolean[Abilities.all().size()];
+		inputDown = new BitSet();
+		inputWasDown = new BitSet();
+		pressedControls = new BitSet();
+		abilitiesDown = new BitSet();
+
+		boundAbilities = new Ability[0];
+		boundKeys = boundAbilityIds = new int[0];
+		boundConflicts = new boolean[0];
+		keymappingsVersion = -1;
+		abilitiesCount = -1;
+
+		tickRaytraceInfos = new ArrayList<>();
+		tickRaytraces = new ArrayList<>();
 
 	}
 
@@ -94,17 +138,17 @@ public class ClientInput implements IControlsHandler {
 	@Override
 	public boolean isControlPressed(AvatarControl control) {
 
-		if (control == CONTROL_LEFT_CLICK) return mouseLeft;
-		if (control == CONTROL_RIGHT_CLICK) return mouseRight;
-		if (control == CONTROL_MIDDLE_CLICK) return mouseMiddle;
-		if (control == CONTROL_LEFT_CLICK_DOWN) return mouseLeft && !wasLeft;
-		if (control == CONTROL_RIGHT_CLICK_DOWN) return mouseRight && !wasRight;
-		if (control == CONTROL_MIDDLE_CLICK_DOWN) return mouseMiddle && !wasMiddle;
-		if (control == CONTROL_SPACE) return space;
-		if (control == CONTROL_SPACE_DOWN) return space && !wasSpace;
-		if (control == CONTROL_LEFT_CLICK_UP) return !mouseLeft && wasLeft;
-		if (control == CONTROL_RIGHT_CLICK_UP) return !mouseRight && wasRight;
-		if (control == CONTROL_MIDDLE_CLICK_UP) return !mouseMiddle && wasMiddle;
+		if (control == CONTROL_LEFT_CLICK) return inputDown.get(INPUT_LEFT);
+		if (control == CONTROL_RIGHT_CLICK) return inputDown.get(INPUT_RIGHT);
+		if (control == CONTROL_MIDDLE_CLICK) return inputDown.get(INPUT_MIDDLE);
+		if (control == CONTROL_LEFT_CLICK_DOWN) return wasJustPressed(INPUT_LEFT);
+		if (control == CONTROL_RIGHT_CLICK_DOWN) return wasJustPressed(INPUT_RIGHT);
+		if (control == CONTROL_MIDDLE_CLICK_DOWN) return wasJustPressed(INPUT_MIDDLE);
+		if (control == CONTROL_SPACE) return inputDown.get(INPUT_SPACE);
+		if (control == CONTROL_SPACE_DOWN) return wasJustPressed(INPUT_SPACE);
+		if (control == CONTROL_LEFT_CLICK_UP) return wasJustReleased(INPUT_LEFT);
+		if (control == CONTROL_RIGHT_CLICK_UP) return wasJustReleased(INPUT_RIGHT);
+		if (control == CONTROL_MIDDLE_CLICK_UP) return wasJustReleased(INPUT_MIDDLE);
 		if (control == CONTROL_SHIFT) return Keyboard.isKeyDown(Keyboard.KEY_LSHIFT);
 		AvatarLog.warn(AvatarLog.WarningType.INVALID_CODE, "ClientInput- Unknown control: " + control);
 		return false;
@@ -114,23 +158,31 @@ public class ClientInput implements IControlsHandler {
 	@Override
 	public boolean isControlDown(AvatarControl control) {
 
-		if (control == CONTROL_LEFT_CLICK) return mouseLeft;
-		if (control == CONTROL_RIGHT_CLICK) return mouseRight;
-		if (control == CONTROL_MIDDLE_CLICK) return mouseMiddle;
-		if (control == CONTROL_LEFT_CLICK_DOWN) return mouseLeft;
-		if (control == CONTROL_RIGHT_CLICK_DOWN) return mouseRight;
-		if (control == CONTROL_MIDDLE_CLICK_DOWN) return mouseMiddle;
-		if (control == CONTROL_SPACE) return space;
-		if (control == CONTROL_SPACE_DOWN) return space;
-		if (control == CONTROL_LEFT_CLICK_UP) return !mouseLeft;
-		if (control == CONTROL_RIGHT_CLICK_UP) return !mouseRight;
-		if (control == CONTROL_MIDDLE_CLICK_UP) return !mouseMiddle;
+		if (control == CONTROL_LEFT_CLICK) return inputDown.get(INPUT_LEFT);
+		if (control == CONTROL_RIGHT_CLICK) return inputDown.get(INPUT_RIGHT);
+		if (control == CONTROL_MIDDLE_CLICK) return inputDown.get(INPUT_MIDDLE);
+		if (control == CONTROL_LEFT_CLICK_DOWN) return inputDown.get(INPUT_LEFT);
+		if (control == CONTROL_RIGHT_CLICK_DOWN) return inputDown.get(INPUT_RIGHT);
+		if (control == CONTROL_MIDDLE_CLICK_DOWN) return inputDown.get(INPUT_MIDDLE);
+		if (control == CONTROL_SPACE) return inputDown.get(INPUT_SPACE);
+		if (control == CONTROL_SPACE_DOWN) return inputDown.get(INPUT_SPACE);
+		if (control == CONTROL_LEFT_CLICK_UP) return !inputDown.get(INPUT_LEFT);
+		if (control == CONTROL_RIGHT_CLICK_UP) return !inputDown.get(INPUT_RIGHT);
+		if (control == CONTROL_MIDDLE_CLICK_UP) return !inputDown.get(INPUT_MIDDLE);
 		if (control == CONTROL_SHIFT) return Keyboard.isKeyDown(Keyboard.KEY_LSHIFT);
 		AvatarLog.warn(AvatarLog.WarningType.INVALID_CODE, "ClientInput- Unknown control: " + control);
 		return false;
 
 	}
 
+	private boolean wasJustPressed(int input) {
+		return inputDown.get(input) && !inputWasDown.get(input);
+	}
+
+	private boolean wasJustReleased(int input) {
+		return !inputDown.get(input) && inputWasDown.get(input);
+	}
+
 	@Override
 	public int getKeyCode(AvatarControl control) {
 		String keyName = control.getName().substring("avatar.".length());
@@ -170,13 +222,9 @@ public class ClientInput implements IControlsHandler {
 
 	}
 
-	private boolean isAbilityPressed(Ability ability) {
-		Integer key = CLIENT_CONFIG.keymappings.get(ability);
-		if (key != null) {
-			if (key < 0 && Mouse.isButtonDown(key + 100)) return true;
-			return key >= 0 && Keyboard.isKeyDown(key);
-		}
-		return false;
+	private boolean isKeyDown(int key) {
+		if (key < 0) return Mouse.isButtonDown(key + 100);
+		return Keyboard.isKeyDown(key);
 	}
 
 	/**
@@ -210,22 +258,88 @@ public class ClientInput implements IControlsHandler {
 		}
 	}
 
+	/**
+	 * Rebuilds the list of abilities which have keys assigned, if the keymappings have changed.
+	 */
+	private void updateBoundAbilities() {
+
+		List<Ability> allAbilities = Abilities.all();
+		int version = ConfigClient.getKeymappingsVersion();
+		if (version == keymappingsVersion && allAbilities.size() == abilitiesCount) {
+			return;
+		}
+		keymappingsVersion = version;
+		abilitiesCount = allAbilities.size();
+
+		int bound = 0;
+		for (Ability ability : allAbilities) {
+			CLIENT_CONFIG.conflicts.putIfAbsent(ability, false);
+			if (CLIENT_CONFIG.keymappings.get(ability) != null) {
+				bound++;
+			}
+		}
+
+		boundAbilities = new Ability[bound];
+		boundKeys = new int[bound];
+		boundAbilityIds = new int[bound];
+		boundConflicts = new boolean[bound];
+
+		int slot = 0;
+		for (int i = 0; i < allAbilities.size(); i++) {
+			Ability ability = allAbilities.get(i);
+			Integer key = CLIENT_CONFIG.keymappings.get(ability);
+			if (key != null) {
+				boundAbilities[slot] = ability;
+				boundKeys[slot] = key;
+				boundAbilityIds[slot] = i;
+				boundConflicts[slot] = CLIENT_CONFIG.conflicts.get(ability);
+				slot++;
+			} else {
+				abilitiesDown.clear(i);
+			}
+		}
+
+	}
+
+	/**
+	 * Gets the block the player is looking at. Only raytraces once per tick for equivalent
+	 * raytrace information.
+	 */
+	private Raytrace.Result getTickRaytrace(EntityPlayer player, Raytrace.Info info) {
+		for (int i = 0; i < tickRaytraceInfos.size(); i++) {
+			if (tickRaytraceInfos.get(i).isEquivalent(info)) {
+				return tickRaytraces.get(i);
+			}
+		}
+		Raytrace.Result result = Raytrace.getTargetBlock(player, info);
+		tickRaytraceInfos.add(info);
+		tickRaytraces.add(result);
+		return result;
+	}
+
 	@SubscribeEvent
 	public void onTick(TickEvent.ClientTickEvent e) {
-		wasLeft = mouseLeft;
-		wasRight = mouseRight;
-		wasMiddle = mouseMiddle;
-		wasSpace = space;
+
+		// Only sample input once per tick; otherwise held controls would be sent twice
+		if (e.phase != TickEvent.Phase.END) {
+			return;
+		}
+
+		inputWasDown.clear();
+		inputWasDown.or(inputDown);
 
 		if (mc.inGameHasFocus) {
-			mouseLeft = Mouse.isButtonDown(0);
-			mouseRight = Mouse.isButtonDown(1);
-			mouseMiddle = Mouse.isButtonDown(2);
+			inputDown.set(INPUT_LEFT, Mouse.isButtonDown(0));
+			inputDown.set(INPUT_RIGHT, Mouse.isButtonDown(1));
+			inputDown.set(INPUT_MIDDLE, Mouse.isButtonDown(2));
 		} else {
-			mouseLeft = mouseRight = mouseMiddle = false;
+			inputDown.clear(INPUT_LEFT, INPUT_MIDDLE + 1);
 		}
 
-		space = Keyboard.isKeyDown(Keyboard.KEY_SPACE);
+		inputDown.set(INPUT_SPACE, Keyboard.isKeyDown(Keyboard.KEY_SPACE));
+
+		tickRaytraceInfos.clear();
+		tickRaytraces.clear();
 
 		EntityPlayer player = mc.player;
 
@@ -236,11 +350,18 @@ public class ClientInput implements IControlsHandler {
 			if (data != null) {
 
 				if (mc.inGameHasFocus) {
-					Collection<AvatarControl> pressed = getAllPressed();
-					Collection<StatusControl> statusControls = data.getAllStatusControls();
-					for (StatusControl sc : statusControls) {
-						if (pressed.contains(sc.getSubscribedControl())) {
-							Result raytrace = Raytrace.getTargetBlock(player, sc.getRaytrace());
+
+					pressedControls.clear();
+					List<AvatarControl> controls = AvatarControl.ALL_CONTROLS;
+					for (int i = 0; i < controls.size(); i++) {
+						if (controls.get(i).isPressed()) {
+							pressedControls.set(i);
+						}
+					}
+
+					for (StatusControl sc : data.getStatusControlsView()) {
+						if (pressedControls.get(sc.getSubscribedControl().getIndex())) {
+							Result raytrace = getTickRaytrace(player, sc.getRaytrace());
 							AvatarMod.network.sendToServer(new PacketSUseStatusControl(sc, raytrace));
 						}
 					}
@@ -248,19 +369,19 @@ public class ClientInput implements IControlsHandler {
 
 			}
 
-			List<Ability> allAbilities = Abilities.all();
-			for (int i = 0; i < allAbilities.size(); i++) {
-				Ability ability = allAbilities.get(i);
-				boolean down = isAbilityPressed(ability);
+			updateBoundAbilities();
+			boolean canUseAbilities = mc.inGameHasFocus && mc.currentScreen == null;
 
-				if (!CLIENT_CONFIG.conflicts.containsKey(ability)) CLIENT_CONFIG.conflicts.put(ability, false);
-				boolean conflict = CLIENT_CONFIG.conflicts.get(ability);
+			for (int slot = 0; slot < boundAbilities.length; slot++) {
+				int id = boundAbilityIds[slot];
+				boolean down = isKeyDown(boundKeys[slot]);
 
-				if (!conflict && mc.inGameHasFocus && mc.currentScreen == null && down && !wasAbilityDown[i]) {
-					Raytrace.Result raytrace = Raytrace.getTargetBlock(mc.player, ability.getRaytrace());
+				if (!boundConflicts[slot] && canUseAbilities && down && !abilitiesDown.get(id)) {
+					Ability ability = boundAbilities[slot];
+					Raytrace.Result raytrace = getTickRaytrace(player, ability.getRaytrace());
 					AvatarMod.network.sendToServer(new PacketSUseAbility(ability, raytrace));
 				}
-				wasAbilityDown[i] = down;
+				abilitiesDown.set(id, down);
 			}
 
 		}
@@ -61,6 +61,8 @@ public class AvatarChatMessages {
 	
 	public static final FormattedMessage MSG_XPSET_SUCCESS = newChatMessage(CFG, "avatar.cmd.xpset", "player", "ability", "spec");
 	
+	public static final FormattedMessage MSG_INPUT_STATS = newChatMessage(CFG, "avatar.cmd.inputs", "accepted", "coalesced", "rejected");
+	
 	public static final FormattedMessage MSG_PROGRESS_POINT_ADDED = newChatMessage(CFG, "avatar.cmd.pp.add", "player", "pps", "bending");
 	public static final FormattedMessage MSG_PROGRESS_POINT_GET = newChatMessage(CFG, "avatar.cmd.pp.get", "player", "pps", "bending");
 	public static final FormattedMessage MSG_PROGRESS_POINT_SET = newChatMessage(CFG, "avatar.cmd.pp.set", "player", "pps", "bending");
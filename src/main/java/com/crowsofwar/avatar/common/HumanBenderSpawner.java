@@ -16,28 +16,70 @@
 */
 package com.crowsofwar.avatar.common;
 
+import net.minecraft.entity.Entity;
 import net.minecraft.entity.passive.EntityVillager;
+import net.minecraft.util.ClassInheritanceMultiMap;
 import net.minecraft.util.math.*;
-import net.minecraft.village.Village;
 import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.gen.structure.MapGenVillage;
 
 import net.minecraftforge.event.terraingen.InitMapGenEvent;
 import net.minecraftforge.event.terraingen.InitMapGenEvent.EventType;
+import net.minecraftforge.event.world.ChunkDataEvent;
+import net.minecraftforge.event.world.ChunkEvent;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
 
 import com.crowsofwar.avatar.AvatarInfo;
 import com.crowsofwar.avatar.common.entity.mob.*;
+import com.crowsofwar.avatar.common.util.PerWorld;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
+ * Adds humanbenders to villages. When a village is generated in a chunk, the chunk is queued, and
+ * a humanbender is spawned at one of the chunk's villagers on a later tick. This keeps world
+ * generation from looking for villagers and nearby humanbenders.
+ * <p>
+ * Until a chunk has been processed, it is marked in its saved data, so chunks which are unloaded
+ * by the time they are processed, or which are still queued when the server stops, are queued
+ * again when they are next loaded.
+ *
  * @author CrowsOfWar
  */
 @Mod.EventBusSubscriber(modid = AvatarInfo.MOD_ID)
 public class HumanBenderSpawner {
 
+	/**
+	 * Maximum amount of queued chunks to process each tick
+	 */
+	private static final int CHUNKS_PER_TICK = 4;
+
+	/**
+	 * Key in a chunk's saved data marking that it still needs a humanbender
+	 */
+	private static final String PENDING_TAG = "AvatarHumanbenderPending";
+
+	/**
+	 * Chunks with newly generated villages, which can be added to from world generation
+	 */
+	private static final PerWorld<Queue<ChunkPos>> generatedChunks = new PerWorld<>(world -> new
+			ConcurrentLinkedQueue<>());
+	/**
+	 * {@link ChunkPos#asLong(int, int) Keys} of the queued chunks which haven't been processed
+	 * yet, which are marked when the chunk is saved
+	 */
+	private static final PerWorld<Set<Long>> pendingChunks = new PerWorld<>(world -> ConcurrentHashMap.newKeySet());
+	/**
+	 * Keys of marked chunks which were read from disk, and are queued once they have finished
+	 * loading. Chunks can be read on the chunk loading thread.
+	 */
+	private static final PerWorld<Set<Long>> markedChunks = new PerWorld<>(world -> ConcurrentHashMap.newKeySet());
+
 	@SubscribeEvent
 	public static void modifyVillageSpawner(InitMapGenEvent e) {
 
@@ -48,51 +90,125 @@ public class HumanBenderSpawner {
 
 	}
 
-	private static class MapGenVillageWithHumanbenders extends MapGenVillage {
+	@SubscribeEvent
+	public static void onWorldTick(TickEvent.WorldTickEvent e) {
 
-		public MapGenVillageWithHumanbenders() {
-			super();
+		World world = e.world;
+		if (e.phase != TickEvent.Phase.END || world.isRemote) {
+			return;
 		}
 
-		public MapGenVillageWithHumanbenders(Map<String, String> map) {
-			super(map);
+		Queue<ChunkPos> queue = generatedChunks.getIfPresent(world);
+		if (queue == null) {
+			return;
 		}
+		Set<Long> pending = pendingChunks.get(world);
 
-		@Override
-		public synchronized boolean generateStructure(World worldIn, Random randomIn, ChunkPos chunkCoord) {
-			boolean result = super.generateStructure(worldIn, randomIn, chunkCoord);
-			if (result) {
+		ChunkPos chunkPos;
+		for (int i = 0; i < CHUNKS_PER_TICK && (chunkPos = queue.poll()) != null; i++) {
 
-				// This list contains villagers in that structure
-				List<EntityVillager> villagers = worldIn
-								.getEntities(EntityVillager.class, villager -> new ChunkPos(villager.getPosition()).equals(chunkCoord));
+			long key = ChunkPos.asLong(chunkPos.x, chunkPos.z);
+			if (!pending.remove(key)) {
+				// Already processed
+				continue;
+			}
 
-				// To attempt to have all humanbenders be same type, check if
-				// there are nearby humanbenders
-				// If there are just copy their type
-				AxisAlignedBB aabb = new AxisAlignedBB(chunkCoord.getBlock(-30, 50, -30), chunkCoord.getBlock(30, 150, 30));
-				List<EntityHumanBender> nearbyBenders = worldIn.getEntitiesWithinAABB(EntityHumanBender.class, aabb);
+			// Unloaded chunks were marked when they were saved, and are queued again once loaded
+			Chunk chunk = world.getChunkProvider().getLoadedChunk(chunkPos.x, chunkPos.z);
+			if (chunk != null) {
+				spawnHumanbender(world, chunk);
+			}
 
-				double chance = 100;
-				Random rand = new Random();
-				if (!villagers.isEmpty() && rand.nextDouble() * 100 < chance) {
+		}
 
-					Village village = worldIn.getVillageCollection().getNearestVillage(chunkCoord.getBlock(0, 0, 0), 200);
+	}
 
-					boolean firebender;
+	@SubscribeEvent
+	public static void onChunkSave(ChunkDataEvent.Save e) {
+		Set<Long> pending = pendingChunks.getIfPresent(e.getWorld());
+		if (pending != null && pending.contains(ChunkPos.asLong(e.getChunk().x, e.getChunk().z))) {
+			e.getData().setBoolean(PENDING_TAG, true);
+		}
+	}
 
-					if (nearbyBenders.isEmpty()) {
-						firebender = new Random().nextBoolean();
-					} else {
-						firebender = nearbyBenders.get(0) instanceof EntityFirebender;
-					}
+	@SubscribeEvent
+	public static void onChunkRead(ChunkDataEvent.Load e) {
+		if (e.getData().getBoolean(PENDING_TAG)) {
+			markedChunks.get(e.getWorld()).add(ChunkPos.asLong(e.getChunk().x, e.getChunk().z));
+		}
+	}
 
-					EntityHumanBender bender = firebender ? new EntityFirebender(worldIn) : new EntityAirbender(worldIn);
-					bender.copyLocationAndAnglesFrom(villagers.get(0));
-					worldIn.spawnEntity(bender);
+	@SubscribeEvent
+	public static void onChunkLoad(ChunkEvent.Load e) {
+		World world = e.getWorld();
+		if (!world.isRemote) {
+			Set<Long> marked = markedChunks.getIfPresent(world);
+			if (marked != null && marked.remove(ChunkPos.asLong(e.getChunk().x, e.getChunk().z))) {
+				queueChunk(world, e.getChunk().getPos());
+			}
+		}
+	}
 
-				}
+	private static void queueChunk(World world, ChunkPos chunkPos) {
+		pendingChunks.get(world).add(ChunkPos.asLong(chunkPos.x, chunkPos.z));
+		generatedChunks.get(world).add(chunkPos);
+	}
 
+	/**
+	 * Spawns a humanbender at one of the villagers in the chunk, if there are any.
+	 */
+	private static void spawnHumanbender(World world, Chunk chunk) {
+
+		EntityVillager villager = null;
+		for (ClassInheritanceMultiMap<Entity> entities : chunk.getEntityLists()) {
+			Iterator<EntityVillager> iterator = entities.getByClass(EntityVillager.class).iterator();
+			if (iterator.hasNext()) {
+				villager = iterator.next();
+				break;
+			}
+		}
+
+		double chance = 100;
+		if (villager != null && world.rand.nextDouble() * 100 < chance) {
+
+			// To attempt to have all humanbenders be same type, check if
+			// there are nearby humanbenders
+			// If there are just copy their type
+			ChunkPos chunkPos = chunk.getPos();
+			AxisAlignedBB aabb = new AxisAlignedBB(chunkPos.getBlock(-30, 50, -30), chunkPos.getBlock(30, 150, 30));
+			List<EntityHumanBender> nearbyBenders = world.getEntitiesWithinAABB(EntityHumanBender.class, aabb);
+
+			boolean firebender;
+
+			if (nearbyBenders.isEmpty()) {
+				firebender = world.rand.nextBoolean();
+			} else {
+				firebender = nearbyBenders.get(0) instanceof EntityFirebender;
+			}
+
+			EntityHumanBender bender = firebender ? new EntityFirebender(world) : new EntityAirbender(world);
+			bender.copyLocationAndAnglesFrom(villager);
+			world.spawnEntity(bender);
+
+		}
+
+	}
+
+	private static class MapGenVillageWithHumanbenders extends MapGenVillage {
+
+		public MapGenVillageWithHumanbenders() {
+			super();
+		}
+
+		public MapGenVillageWithHumanbenders(Map<String, String> map) {
+			super(map);
+		}
+
+		@Override
+		public boolean generateStructure(World worldIn, Random randomIn, ChunkPos chunkCoord) {
+			boolean result = super.generateStructure(worldIn, randomIn, chunkCoord);
+			if (result) {
+				queueChunk(worldIn, chunkCoord);
 			}
 			return result;
 		}
@@ -7,25 +7,34 @@ import com.crowsofwar.avatar.common.data.ctx.AbilityContext;
 import com.crowsofwar.avatar.common.util.Raytrace;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 
 /**
  * Sometimes ability executions are blocked due to cooldown, but should still be fired after the
  * cooldown is over. This class manages these on-hold ability executions, and performs them when
  * ready.
+ * <p>
+ * Executions are kept in a priority queue per world, ordered by the world tick they are due, so
+ * each world tick only looks at the executions which are due. Each entity can only have one
+ * queued execution; queueing another one replaces it.
  *
  * @author CrowsOfWar
  */
 @Mod.EventBusSubscriber(modid = AvatarInfo.MOD_ID)
 public class QueuedAbilityExecutionHandler {
 
-	private static final List<QueuedAbilityExecution> abilityExecutions = new ArrayList<>();
+	private static final Map<World, PriorityQueue<QueuedAbilityExecution>> queues = new HashMap<>();
+	private static final Map<EntityLivingBase, QueuedAbilityExecution> queuedByEntity = new HashMap<>();
 
 	private QueuedAbilityExecutionHandler() {
 	}
@@ -34,16 +43,56 @@ public class QueuedAbilityExecutionHandler {
 	public static void tick(TickEvent.WorldTickEvent e) {
 		World world = e.world;
 		if (e.phase == TickEvent.Phase.START && !world.isRemote) {
-			Iterator<QueuedAbilityExecution> iterator = abilityExecutions.iterator();
-			while (iterator.hasNext()) {
-				QueuedAbilityExecution par = iterator.next();
-				par.ticks--;
-				if (par.ticks <= 0 && par.data.getMiscData().getAbilityCooldown() == 0 && par
-						.data.getMiscData().getCanUseAbilities()) {
+
+			PriorityQueue<QueuedAbilityExecution> queue = queues.get(world);
+			if (queue == null) {
+				return;
+			}
+
+			long now = world.getTotalWorldTime();
+			List<QueuedAbilityExecution> stillWaiting = null;
+			while (!queue.isEmpty() && queue.peek().dueTick <= now) {
+
+				QueuedAbilityExecution par = queue.poll();
+
+				// Replaced by a newer execution, or the entity is gone
+				if (queuedByEntity.get(par.entity) != par) {
+					continue;
+				}
+				if (par.entity.isDead) {
+					queuedByEntity.remove(par.entity);
+					continue;
+				}
+
+				int cooldown = par.data.getMiscData().getAbilityCooldown();
+				if (cooldown == 0 && par.data.getMiscData().getCanUseAbilities()) {
+					queuedByEntity.remove(par.entity);
 					par.ability.execute(new AbilityContext(par.data, par.raytrace, par.ability,
 							par.entity, par.powerRating));
-					iterator.remove();
+				} else {
+					// Check again once the cooldown is over
+					par.dueTick = now + Math.max(cooldown, 1);
+					if (stillWaiting == null) {
+						stillWaiting = new ArrayList<>();
+					}
+					stillWaiting.add(par);
 				}
+
+			}
+
+			if (stillWaiting != null) {
+				queue.addAll(stillWaiting);
+			}
+
+		}
+	}
+
+	@SubscribeEvent
+	public static void onWorldUnload(WorldEvent.Unload e) {
+		PriorityQueue<QueuedAbilityExecution> queue = queues.remove(e.getWorld());
+		if (queue != null) {
+			for (QueuedAbilityExecution par : queue) {
+				queuedByEntity.remove(par.entity, par);
 			}
 		}
 	}
@@ -51,8 +100,15 @@ public class QueuedAbilityExecutionHandler {
 	public static void queueAbilityExecution(EntityLivingBase entity, BendingData data, Ability
 			ability, Raytrace.Result raytrace, double powerRating) {
 
-		abilityExecutions.add(new QueuedAbilityExecution(data.getMiscData().getAbilityCooldown(), entity, data,
-				ability, raytrace, powerRating));
+		World world = entity.world;
+		long dueTick = world.getTotalWorldTime() + data.getMiscData().getAbilityCooldown();
+		QueuedAbilityExecution par = new QueuedAbilityExecution(dueTick, entity, data, ability, raytrace,
+				powerRating);
+
+		// Any execution previously queued by the entity is skipped when it comes up in the queue
+		queuedByEntity.put(entity, par);
+		queues.computeIfAbsent(world, w -> new PriorityQueue<>(Comparator.comparingLong(q -> q.dueTick)))
+				.add(par);
 
 	}
 
@@ -63,11 +119,11 @@ public class QueuedAbilityExecutionHandler {
 		private final Ability ability;
 		private final Raytrace.Result raytrace;
 		private final double powerRating;
-		private int ticks;
+		private long dueTick;
 
-		public QueuedAbilityExecution(int ticks, EntityLivingBase entity, BendingData data,
+		public QueuedAbilityExecution(long dueTick, EntityLivingBase entity, BendingData data,
 									  Ability ability, Raytrace.Result raytrace, double powerRating) {
-			this.ticks = ticks;
+			this.dueTick = dueTick;
 			this.entity = entity;
 			this.data = data;
 			this.ability = ability;
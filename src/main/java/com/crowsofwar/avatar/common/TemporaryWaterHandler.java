@@ -18,7 +18,6 @@ package com.crowsofwar.avatar.common;
 
 import com.crowsofwar.avatar.AvatarInfo;
 import com.crowsofwar.avatar.common.data.AvatarWorldData;
-import com.crowsofwar.avatar.common.data.TemporaryWaterLocation;
 import net.minecraft.block.Block;
 import net.minecraft.init.Blocks;
 import net.minecraft.util.math.BlockPos;
@@ -29,9 +28,6 @@ import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
 import net.minecraftforge.fml.common.gameevent.TickEvent.WorldTickEvent;
 import net.minecraftforge.fml.relauncher.Side;
 
-import java.util.Iterator;
-import java.util.List;
-
 /**
  * A hacky workaround to manage a temporary water block at a position. The water
  * block will flow outwards. Creating a flowing water block (which would
@@ -49,30 +45,14 @@ public class TemporaryWaterHandler {
 			World world = e.world;
 			AvatarWorldData wd = AvatarWorldData.getDataFromWorld(world);
 
-			List<TemporaryWaterLocation> twls = wd.geTemporaryWaterLocations();
-			Iterator<TemporaryWaterLocation> iterator = twls.iterator();
-
-			while (iterator.hasNext()) {
-
-				TemporaryWaterLocation twl = iterator.next();
-
-				if (twl.getDimension() == world.provider.getDimension()) {
-
-					twl.decrementTicks();
-					if (twl.getTicks() <= 0) {
-						BlockPos pos = twl.getPos();
-						Block block = world.getBlockState(pos).getBlock();
-						if (block == Blocks.FLOWING_WATER || block == Blocks.WATER) {
-							// world.setBlockToAir(pos);
-							world.setBlockState(pos, Blocks.AIR.getDefaultState(), 3);
-						}
-
-						iterator.remove();
-					}
-
+			wd.tickTemporaryWater(world.provider.getDimension(), twl -> {
+				BlockPos pos = twl.getPos();
+				Block block = world.getBlockState(pos).getBlock();
+				if (block == Blocks.FLOWING_WATER || block == Blocks.WATER) {
+					// world.setBlockToAir(pos);
+					world.setBlockState(pos, Blocks.AIR.getDefaultState(), 3);
 				}
-
-			}
+			});
 
 		}
 	}
@@ -1,50 +1,118 @@
 package com.crowsofwar.avatar.common.analytics;
 
-import net.minecraftforge.fml.common.Mod;
-import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
-import net.minecraftforge.fml.common.gameevent.TickEvent;
-
-import com.crowsofwar.avatar.AvatarInfo;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Manages the relation between analytics and the game; sends analytics at the right time to do so.
+ * <p>
+ * Events are uploaded by a single daemon thread, once enough events have been queued to fill a
+ * batch or the oldest queued event has waited long enough. If an upload fails, it is retried with
+ * exponential backoff, and the events are dropped after several failed attempts.
  *
  * @author CrowsOfWar
  */
-@Mod.EventBusSubscriber(modid = AvatarInfo.MOD_ID)
 public class AnalyticsManager {
 
 	/**
-	 * Last time since data was sent
+	 * Amount of queued events that causes them to be uploaded immediately
+	 */
+	static final int BATCH_SIZE = 10;
+	/**
+	 * Maximum time (in milliseconds) that an event waits before being uploaded
+	 */
+	private static final long MAX_EVENT_AGE = 10000;
+	private static final long MIN_BACKOFF = 5000;
+	private static final long MAX_BACKOFF = 5 * 60 * 1000;
+	/**
+	 * Amount of times to try uploading a batch before dropping its events
 	 */
-	private static long lastSendTime = System.currentTimeMillis();
+	private static final int MAX_ATTEMPTS = 5;
 
-	@SubscribeEvent
-	public static void onTick(TickEvent e) {
+	private static final AtomicLong failedUploads = new AtomicLong();
+	private static volatile Thread uploader;
 
-		if (e.phase != TickEvent.Phase.START) {
-			return;
+	/**
+	 * Starts the uploader thread, if it hasn't been started already.
+	 */
+	public static synchronized void start() {
+		if (uploader == null) {
+			Thread thread = new Thread(AnalyticsManager::uploadEvents, "AvatarMod Analytics Uploader");
+			thread.setDaemon(true);
+			uploader = thread;
+			thread.start();
 		}
-		if (e instanceof TickEvent.ClientTickEvent || e instanceof TickEvent.ServerTickEvent) {
+	}
+
+	/**
+	 * Makes the uploader check for events to upload now, instead of after its current wait.
+	 */
+	static void wakeUp() {
+		Thread thread = uploader;
+		if (thread != null) {
+			LockSupport.unpark(thread);
+		}
+	}
+
+	/**
+	 * Get the amount of upload requests which failed
+	 */
+	public static long getFailedUploads() {
+		return failedUploads.get();
+	}
+
+	private static void uploadEvents() {
+
+		AvatarAnalytics analytics = AvatarAnalytics.INSTANCE;
+		List<AnalyticEvent> batch = new ArrayList<>();
+		int attempts = 0;
+		long backoff = MIN_BACKOFF;
+
+		while (true) {
+
+			if (batch.isEmpty()) {
+
+				long age = analytics.getOldestEventAge();
+				if (analytics.getUnsentEventsAmount() < BATCH_SIZE && age < MAX_EVENT_AGE) {
+					long wait = age == -1 ? MAX_EVENT_AGE : MAX_EVENT_AGE - age;
+					LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(wait));
+					continue;
+				}
 
-			int unsent = AvatarAnalytics.INSTANCE.getUnsentEventsAmount();
+				analytics.pollEvents(batch, AvatarAnalytics.MAX_BULK_EVENTS);
+				if (batch.isEmpty()) {
+					continue;
+				}
 
-			if (unsent >= 10) {
-				uploadEvents();
 			}
 
-			if (unsent > 0 && AvatarAnalytics.INSTANCE.getLatestEventTime() > 10000) {
-				uploadEvents();
+			if (analytics.sendEvents(batch)) {
+				batch.clear();
+				attempts = 0;
+				backoff = MIN_BACKOFF;
+				continue;
 			}
 
-		}
+			failedUploads.incrementAndGet();
+			attempts++;
+			if (attempts >= MAX_ATTEMPTS) {
+				analytics.dropEvents(batch.size());
+				batch.clear();
+				attempts = 0;
+			}
 
-	}
+			try {
+				Thread.sleep(backoff);
+			} catch (InterruptedException e) {
+				return;
+			}
+			backoff = Math.min(backoff * 2, MAX_BACKOFF);
+
+		}
 
-	private static void uploadEvents() {
-		lastSendTime = System.currentTimeMillis();
-		Runnable runnable = AvatarAnalytics.INSTANCE::uploadEvents;
-		new Thread(runnable).start();
 	}
 
 }
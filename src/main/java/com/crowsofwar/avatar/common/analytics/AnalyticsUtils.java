@@ -26,24 +26,31 @@ public class AnalyticsUtils {
 	}
 
 	/**
-	 * Makes a request to the GA API
+	 * Makes a request to the GA API. Returns false if the request failed; if analytics are
+	 * disabled, nothing is sent and returns true.
 	 */
-	public static void makeSingleApiRequest(String params) {
+	public static boolean makeSingleApiRequest(String params) {
 		if (ConfigAnalytics.ANALYTICS_CONFIG.isAnalyticsEnabled()) {
-			post("https://www.google-analytics.com/collect", params);
+			return post("https://www.google-analytics.com/collect", params);
 		}
+		return true;
 	}
 
 	/**
-	 * Makes a request to the GA API
+	 * Makes a request to the GA API. Returns false if the request failed; if analytics are
+	 * disabled, nothing is sent and returns true.
 	 */
-	public static void makeBatchApiRequest(String params) {
+	public static boolean makeBatchApiRequest(String params) {
 		if (ConfigAnalytics.ANALYTICS_CONFIG.isAnalyticsEnabled()) {
-			post("https://www.google-analytics.com/batch", params);
+			return post("https://www.google-analytics.com/batch", params);
 		}
+		return true;
 	}
 
-	public static void post(String url, String payload) {
+	/**
+	 * Sends a POST request and returns whether the server accepted it.
+	 */
+	public static boolean post(String url, String payload) {
 
 		// We can't use Apache HTTP libraries here because for some reason they aren't loaded on the
 		// server
@@ -67,8 +74,12 @@ public class AnalyticsUtils {
 			outputStream.write(payloadBytes);
 			outputStream.flush();
 
+			int responseCode = connection.getResponseCode();
+			return responseCode >= 200 && responseCode < 300;
+
 		} catch (Exception e) {
 			e.printStackTrace();
+			return false;
 		} finally {
 
 			if (connection != null) {
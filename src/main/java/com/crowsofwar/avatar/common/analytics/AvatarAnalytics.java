@@ -6,8 +6,12 @@ import com.crowsofwar.avatar.server.AvatarServerProxy;
 import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.common.Loader;
 
-import java.util.Deque;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author CrowsOfWar
@@ -19,12 +23,26 @@ public class AvatarAnalytics {
 	 */
 	public static final int MAX_BULK_EVENTS = 20;
 
+	/**
+	 * Maximum amount of events that can be waiting to be sent. Further events are dropped.
+	 */
+	public static final int MAX_QUEUED_EVENTS = 500;
+
 	public static final AvatarAnalytics INSTANCE = new AvatarAnalytics();
 
-	private final Deque<AnalyticEvent> queuedEvents;
+	private final Queue<AnalyticEvent> queuedEvents;
+	/**
+	 * Size of queuedEvents, since the queue's size() needs to traverse every element
+	 */
+	private final AtomicInteger queuedAmount;
+	private final AtomicLong droppedEvents;
+	private final AtomicLong sentEvents;
 
 	public AvatarAnalytics() {
-		queuedEvents = new LinkedList<>();
+		queuedEvents = new ConcurrentLinkedQueue<>();
+		queuedAmount = new AtomicInteger();
+		droppedEvents = new AtomicLong();
+		sentEvents = new AtomicLong();
 	}
 
 	public void init() {
@@ -49,6 +67,7 @@ public class AvatarAnalytics {
 		AnalyticsUtils.makeSingleApiRequest(params);
 
 		Runtime.getRuntime().addShutdownHook(new Thread(AvatarAnalytics.INSTANCE::onExit));
+		AnalyticsManager.start();
 
 	}
 
@@ -57,6 +76,13 @@ public class AvatarAnalytics {
 	 */
 	public void onExit() {
 
+		// Try to send the events which are still queued, without retrying
+		List<AnalyticEvent> remaining = new ArrayList<>();
+		pollEvents(remaining, MAX_BULK_EVENTS);
+		if (!remaining.isEmpty()) {
+			sendEvents(remaining);
+		}
+
 		// Send sessionTime metric to google
 		String params = AnalyticsUtils.getBasicParameters();
 		params += "&t=event";
@@ -68,11 +94,18 @@ public class AvatarAnalytics {
 	}
 
 	/**
-	 * Adds the given events to the queue to be sent later.
+	 * Adds the given events to the queue to be sent later. If too many events are already
+	 * waiting to be sent, the event is dropped.
 	 */
 	public void pushEvent(AnalyticEvent event) {
-		synchronized (queuedEvents) {
-			queuedEvents.add(event);
+		if (queuedAmount.incrementAndGet() > MAX_QUEUED_EVENTS) {
+			queuedAmount.decrementAndGet();
+			droppedEvents.incrementAndGet();
+			return;
+		}
+		queuedEvents.add(event);
+		if (queuedAmount.get() >= AnalyticsManager.BATCH_SIZE) {
+			AnalyticsManager.wakeUp();
 		}
 	}
 
@@ -80,62 +113,59 @@ public class AvatarAnalytics {
 	 * Adds the given events to the queue to be sent later.
 	 */
 	public void pushEvents(AnalyticEvent... events) {
-		synchronized (queuedEvents) {
-			for (AnalyticEvent event : events) {
-				queuedEvents.add(event);
-			}
+		for (AnalyticEvent event : events) {
+			pushEvent(event);
 		}
 	}
 
 	/**
-	 * Sends all currently queued events to the server
+	 * Removes up to <code>max</code> of the oldest queued events and adds them to the list.
 	 */
-	public void uploadEvents() {
-
-		// If the whole method was in a synchronized block, then the server thread would have to
-		// wait for the whole method to complete before using queuedEvents again.
-		//
-		// However, putting ALL the statements into synchronized isn't necessary- only statements
-		// getting queuedEventsArray and clearing queuedEvents need synchronized block
-		//
-		// sendEvents doesn't need synchronized block, and it's also very slow. If it was in
-		// synchronized block, it could cause some serious hold-ups for other threads waiting for
-		// access.
-		// (This actually caused lagspikes while sending analytics, because the sendEvents method
-		// was taking a while and held up the server thread)
-		//
-		// This is why sendEvents hasn't been synchronized like the other methods
-
-		AnalyticEvent[] queuedEventsArray;
-		synchronized (queuedEvents) {
-			queuedEventsArray = queuedEvents.toArray(new AnalyticEvent[0]);
-		}
-		sendEvents(queuedEventsArray);
-		synchronized (queuedEvents) {
-			queuedEvents.clear();
+	void pollEvents(List<AnalyticEvent> list, int max) {
+		AnalyticEvent event;
+		while (list.size() < max && (event = queuedEvents.poll()) != null) {
+			queuedAmount.decrementAndGet();
+			list.add(event);
 		}
+	}
 
+	/**
+	 * Records that the given amount of events were given up on and won't be sent.
+	 */
+	void dropEvents(int amount) {
+		droppedEvents.addAndGet(amount);
 	}
 
 	/**
 	 * Get the amount of unset events
 	 */
 	public int getUnsentEventsAmount() {
-		synchronized (queuedEvents) {
-			return queuedEvents.size();
-		}
+		return queuedAmount.get();
 	}
 
 	/**
-	 * Gets the amount of time (in milliseconds) since the latest <strong>unsent</strong> event was
+	 * Get the amount of events which were dropped, either because too many events were queued or
+	 * because they couldn't be uploaded.
+	 */
+	public long getDroppedEventsAmount() {
+		return droppedEvents.get();
+	}
+
+	/**
+	 * Get the amount of events which were successfully uploaded.
+	 */
+	public long getSentEventsAmount() {
+		return sentEvents.get();
+	}
+
+	/**
+	 * Gets the amount of time (in milliseconds) since the oldest <strong>unsent</strong> event was
 	 * fired. If no new events need to be sent, returns -1.
 	 */
-	public long getLatestEventTime() {
-		synchronized (queuedEvents) {
-			if (!queuedEvents.isEmpty()) {
-				AnalyticEvent latestEvent = queuedEvents.getLast();
-				return System.currentTimeMillis() - latestEvent.getCreationTime();
-			}
+	public long getOldestEventAge() {
+		AnalyticEvent oldestEvent = queuedEvents.peek();
+		if (oldestEvent != null) {
+			return System.currentTimeMillis() - oldestEvent.getCreationTime();
 		}
 		return -1;
 	}
@@ -158,43 +188,30 @@ public class AvatarAnalytics {
 	}
 
 	/**
-	 * Sends the given events to the server through an HTTP post request.
+	 * Sends the given events to the server in one HTTP post request, so there must be no more than
+	 * {@link #MAX_BULK_EVENTS}. Returns whether the request was successful.
 	 */
-	private void sendEvents(AnalyticEvent... events) {
+	boolean sendEvents(List<AnalyticEvent> events) {
 
-		// Must only allow up to MAX_BULK_EVENTS in each POST request, which results in this
-		// algorithm
-		// In each "round", i.e. execution of while loop, one batch request is sent, containing
-		// several of the events, up to MAX_BULK_EVENTS.
-		// Keep track of
-		// 1) Total events sent so far (sentEvents); needed to keep track of overall which events
-		//    still need sending
-		// 2) Events sent in this round (sentHere); lets us know when to end the round (once
-		//    MAX_BULK_EVENTS has been reached)
-
-		int sentEvents = 0;
-
-		while (events.length - sentEvents > 0) {
-
-			String params = "";
-			int sentHere = 0;
-			for (; sentEvents < events.length && sentHere < MAX_BULK_EVENTS; sentHere++) {
-
-				params += getEventParameters(events[sentEvents]) + "\n";
-				sentEvents++;
-
-			}
+		StringBuilder params = new StringBuilder();
+		for (AnalyticEvent event : events) {
+			params.append(getEventParameters(event)).append('\n');
+		}
 
-			// In case there's only 1 being sent, just use regular endpoint
-			// For multiple, use batch endpoint
+		// In case there's only 1 being sent, just use regular endpoint
+		// For multiple, use batch endpoint
 
-			if (sentHere == 1) {
-				AnalyticsUtils.makeSingleApiRequest(params);
-			} else {
-				AnalyticsUtils.makeBatchApiRequest(params);
-			}
+		boolean success;
+		if (events.size() == 1) {
+			success = AnalyticsUtils.makeSingleApiRequest(params.toString());
+		} else {
+			success = AnalyticsUtils.makeBatchApiRequest(params.toString());
+		}
 
+		if (success) {
+			sentEvents.addAndGet(events.size());
 		}
+		return success;
 
 	}
 
@@ -32,12 +32,30 @@ public class Abilities {
 
 	private static final List<Ability> abilities = new ArrayList<>();
 	private static final Map<String, Ability> abilitiesByName = new HashMap<>();
+	private static final Map<String, Integer> networkIdByName = new HashMap<>();
 
 	@Nullable
 	public static Ability get(String name) {
 		return abilitiesByName.get(name);
 	}
 
+	/**
+	 * Gets the ability with that network id, which is its index of registration. The client
+	 * should use the ids of the server instead; see
+	 * {@link com.crowsofwar.avatar.common.network.NetworkIds}.
+	 */
+	@Nullable
+	public static Ability get(int networkId) {
+		return networkId >= 0 && networkId < abilities.size() ? abilities.get(networkId) : null;
+	}
+
+	/**
+	 * Gets the network id of the ability with that name, or -1 if there is no such ability.
+	 */
+	public static int getNetworkId(String name) {
+		return networkIdByName.getOrDefault(name, -1);
+	}
+
 	@Nullable
 	public static BendingAi getAi(String name, EntityLiving entity, Bender bender) {
 		Ability ability = get(name);
@@ -53,6 +71,7 @@ public class Abilities {
 	}
 
 	public static void register(Ability ability) {
+		networkIdByName.put(ability.getName(), abilities.size());
 		abilities.add(ability);
 		abilitiesByName.put(ability.getName(), ability);
 	}
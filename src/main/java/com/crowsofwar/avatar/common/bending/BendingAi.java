@@ -23,6 +23,8 @@ import com.crowsofwar.avatar.common.data.*;
 import com.crowsofwar.avatar.common.data.ctx.BendingContext;
 import com.crowsofwar.avatar.common.util.Raytrace;
 
+import javax.annotation.Nullable;
+
 /**
  * Represents behavior needed for use of an ability by a mob. When most
  * abilities are activated, some sort of preparation or strategy is required.
@@ -75,20 +77,48 @@ public abstract class BendingAi extends EntityAIBase {
 
 	@Override
 	public final boolean shouldExecute() {
-		EntityLivingBase target = entity.getAttackTarget();
-		boolean targetInRange = target == null || entity.getDistanceSq(target) < 12 * 12;
+		if (!BendingAiScheduler.get(entity.world).canEvaluate(entity)) {
+			return false;
+		}
+		EntityLivingBase target = getTarget();
+		boolean targetInRange = target == null || getTargetDistanceSq() < 12 * 12;
 		return bender.getData().getMiscData().getAbilityCooldown() == 0 && targetInRange && shouldExec();
 	}
 
 	protected abstract boolean shouldExec();
 
+	/**
+	 * Gets the entity's attack target, which is shared between the entity's bending AIs and
+	 * cached for a few ticks.
+	 */
+	@Nullable
+	protected EntityLivingBase getTarget() {
+		return BendingAiScheduler.get(entity.world).getTarget(entity);
+	}
+
+	/**
+	 * Gets the squared distance to the {@link #getTarget() target}, cached along with the target.
+	 */
+	protected double getTargetDistanceSq() {
+		return BendingAiScheduler.get(entity.world).getTargetDistanceSq(entity);
+	}
+
+	/**
+	 * Gets whether the entity can see its {@link #getTarget() target}, cached along with the
+	 * target.
+	 */
+	protected boolean canSeeTarget() {
+		return BendingAiScheduler.get(entity.world).canSeeTarget(entity);
+	}
+
 	protected abstract void startExec();
 
 	/**
 	 * Executes the ability's main code (the part used for players)
 	 */
 	protected void execAbility() {
-		bender.executeAbility(ability);
+		Raytrace.Result raytrace = BendingAiScheduler.get(entity.world).getTargetBlock(entity, ability.getRaytrace());
+		bender.executeAbility(ability, raytrace);
 	}
 
 	/**
@@ -97,7 +127,7 @@ public abstract class BendingAi extends EntityAIBase {
 	protected void execStatusControl(StatusControl sc) {
 		BendingData data = bender.getData();
 		if (data.hasStatusControl(sc)) {
-			Raytrace.Result raytrace = Raytrace.getTargetBlock(entity, ability.getRaytrace());
+			Raytrace.Result raytrace = BendingAiScheduler.get(entity.world).getTargetBlock(entity, ability.getRaytrace());
 			if (sc.execute(new BendingContext(data, entity, bender, raytrace))) {
 				data.removeStatusControl(sc);
 			}
@@ -0,0 +1,219 @@
+/* 
+  This file is part of AvatarMod.
+    
+  AvatarMod is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+  
+  AvatarMod is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+  
+  You should have received a copy of the GNU General Public License
+  along with AvatarMod. If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package com.crowsofwar.avatar.common.bending;
+
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.world.World;
+
+import com.crowsofwar.avatar.common.util.PerWorld;
+import com.crowsofwar.avatar.common.util.Raytrace;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+import static com.crowsofwar.avatar.common.config.ConfigMobs.MOBS_CONFIG;
+
+/**
+ * Spreads the evaluation of mobs' {@link BendingAi bending AI} across ticks, so that only a
+ * limited amount of mobs decide whether to use their bending each tick. When a mob is allowed
+ * to evaluate, all of its bending AIs evaluate in that tick.
+ * <p>
+ * Also caches each mob's target, and the raytrace used when executing abilities, so that all
+ * of a mob's bending AIs can share them.
+ *
+ * @author CrowsOfWar
+ */
+public class BendingAiScheduler {
+
+	/**
+	 * How many ticks a mob's target, its distance and line of sight are cached for
+	 */
+	private static final int TARGET_CACHE_TICKS = 3;
+	/**
+	 * Mobs which haven't asked to evaluate for this many ticks are forgotten
+	 */
+	private static final int FORGET_TICKS = 100;
+
+	private static final PerWorld<BendingAiScheduler> schedulers = new PerWorld<>(world -> new BendingAiScheduler());
+
+	private final Map<EntityLiving, AiState> states;
+	private long currentTick;
+	private int evaluationsThisTick;
+
+	private BendingAiScheduler() {
+		this.states = new WeakHashMap<>();
+		this.currentTick = -1;
+	}
+
+	public static BendingAiScheduler get(World world) {
+		return schedulers.get(world);
+	}
+
+	/**
+	 * Returns whether the mob's bending AI may evaluate this tick. Mobs are evaluated at most
+	 * once every {@link #getInterval() interval}, and no more than the configured amount of mobs
+	 * are evaluated each tick. Slots are given out in the order that mobs ask, which is the
+	 * order they update in; mobs which missed out ask again on a later tick.
+	 * <p>
+	 * Since AI tasks which aren't running are only checked every 3 ticks, a mob asks at most
+	 * every 3 ticks, so the interval is effectively rounded up to a multiple of 3.
+	 */
+	public boolean canEvaluate(EntityLiving entity) {
+
+		long now = entity.world.getTotalWorldTime();
+		if (now != currentTick) {
+			currentTick = now;
+			evaluationsThisTick = 0;
+			if (now % FORGET_TICKS == 0) {
+				states.values().removeIf(state -> now - state.lastRequested > FORGET_TICKS);
+			}
+		}
+
+		AiState state = getState(entity);
+		state.lastRequested = now;
+
+		if (state.lastEvaluated == now) {
+			return true;
+		}
+		if (now - state.lastEvaluated < getInterval()
+				|| evaluationsThisTick >= MOBS_CONFIG.bendingAiEvaluationsPerTick) {
+			return false;
+		}
+
+		state.lastEvaluated = now;
+		evaluationsThisTick++;
+		return true;
+
+	}
+
+	/**
+	 * The minimum amount of ticks between each mob's evaluations. Grows with the amount of mobs,
+	 * so that every mob gets a turn.
+	 */
+	private long getInterval() {
+		int perTick = Math.max(1, MOBS_CONFIG.bendingAiEvaluationsPerTick);
+		return Math.max(MOBS_CONFIG.bendingAiMinInterval, (states.size() + perTick - 1) / perTick);
+	}
+
+	/**
+	 * Gets the mob's attack target, which is cached for a few ticks. Returns null if the target
+	 * has died since.
+	 */
+	@Nullable
+	public EntityLivingBase getTarget(EntityLiving entity) {
+		AiState state = updateTarget(entity);
+		return state.target;
+	}
+
+	/**
+	 * Gets the squared distance to the mob's {@link #getTarget(EntityLiving) target}, as of when
+	 * the target was cached.
+	 */
+	public double getTargetDistanceSq(EntityLiving entity) {
+		return updateTarget(entity).targetDistanceSq;
+	}
+
+	/**
+	 * Gets whether the mob could see its {@link #getTarget(EntityLiving) target} when the target
+	 * was cached.
+	 */
+	public boolean canSeeTarget(EntityLiving entity) {
+		return updateTarget(entity).canSeeTarget;
+	}
+
+	/**
+	 * Gets the block that the mob is looking at. Mobs with several bending AIs usually execute
+	 * them while looking in the same direction, so the result is reused while the mob doesn't
+	 * move or turn during this tick.
+	 */
+	public Raytrace.Result getTargetBlock(EntityLiving entity, Raytrace.Info info) {
+
+		if (!info.needsRaytrace()) {
+			return Raytrace.getTargetBlock(entity, info);
+		}
+
+		AiState state = getState(entity);
+		long now = entity.world.getTotalWorldTime();
+		boolean reusable = state.raytrace != null && state.raytraceTick == now
+				&& state.raytraceRange == info.getRange() && state.raytraceLiquids == info.raycastLiquids()
+				&& !info.predicateRaytrace() && state.raytraceX == entity.posX && state.raytraceY == entity.posY
+				&& state.raytraceZ == entity.posZ && state.raytraceYaw == entity.rotationYaw
+				&& state.raytracePitch == entity.rotationPitch;
+
+		if (!reusable) {
+			state.raytrace = Raytrace.getTargetBlock(entity, info);
+			state.raytraceTick = now;
+			state.raytraceRange = info.getRange();
+			state.raytraceLiquids = info.raycastLiquids();
+			state.raytraceX = entity.posX;
+			state.raytraceY = entity.posY;
+			state.raytraceZ = entity.posZ;
+			state.raytraceYaw = entity.rotationYaw;
+			state.raytracePitch = entity.rotationPitch;
+		}
+		return state.raytrace;
+
+	}
+
+	private AiState getState(EntityLiving entity) {
+		return states.computeIfAbsent(entity, e -> new AiState());
+	}
+
+	private AiState updateTarget(EntityLiving entity) {
+
+		AiState state = getState(entity);
+		long now = entity.world.getTotalWorldTime();
+
+		EntityLivingBase target = entity.getAttackTarget();
+		if (target != state.target || now - state.targetTick >= TARGET_CACHE_TICKS) {
+			state.target = target;
+			state.targetTick = now;
+			state.targetDistanceSq = target == null ? -1 : entity.getDistanceSq(target);
+			state.canSeeTarget = target != null && entity.getEntitySenses().canSee(target);
+		}
+
+		if (state.target != null && !state.target.isEntityAlive()) {
+			state.target = null;
+		}
+		return state;
+
+	}
+
+	private static class AiState {
+
+		private long lastEvaluated = Long.MIN_VALUE / 2;
+		private long lastRequested;
+
+		@Nullable
+		private EntityLivingBase target;
+		private long targetTick;
+		private double targetDistanceSq;
+		private boolean canSeeTarget;
+
+		@Nullable
+		private Raytrace.Result raytrace;
+		private long raytraceTick;
+		private double raytraceRange;
+		private boolean raytraceLiquids;
+		private double raytraceX, raytraceY, raytraceZ;
+		private float raytraceYaw, raytracePitch;
+
+	}
+
+}
@@ -63,7 +63,7 @@ public class AiAirGust extends BendingAi {
 
 	@Override
 	protected boolean shouldExec() {
-		return entity.getAttackTarget() != null && entity.getDistanceSq(entity.getAttackTarget()) < 4 * 4;
+		return getTarget() != null && getTargetDistanceSq() < 4 * 4;
 	}
 
 }
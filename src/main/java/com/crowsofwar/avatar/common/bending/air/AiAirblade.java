@@ -63,10 +63,10 @@ public class AiAirblade extends BendingAi {
 	@Override
 	protected boolean shouldExec() {
 
-		EntityLivingBase target = entity.getAttackTarget();
+		EntityLivingBase target = getTarget();
 
 		if (target != null) {
-			double dist = entity.getDistanceSq(target);
+			double dist = getTargetDistanceSq();
 			return dist >= 4 * 4;
 		}
 
@@ -57,8 +57,8 @@ public class AiCloudBall extends BendingAi {
 
 	@Override
 	protected boolean shouldExec() {
-		EntityLivingBase target = entity.getAttackTarget();
-		return target != null && entity.getDistanceSq(target) > 4 * 4 && bender.getData().getMiscData().getAbilityCooldown() == 0 && entity.getRNG()
+		EntityLivingBase target = getTarget();
+		return target != null && getTargetDistanceSq() > 4 * 4 && bender.getData().getMiscData().getAbilityCooldown() == 0 && entity.getRNG()
 						.nextBoolean();
 	}
 
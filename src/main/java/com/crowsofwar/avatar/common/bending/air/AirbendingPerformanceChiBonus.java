@@ -45,8 +45,7 @@ public class AirbendingPerformanceChiBonus {
 
 					Chi chi = data.chi();
 					if (chi.getAvailableChi() < chi.getAvailableMaxChi()) {
-						chi.changeAvailableChi(availableChi);
-						chi.changeTotalChi(totalChi);
+						chi.regenerate(totalChi, availableChi);
 					}
 
 				}
@@ -21,7 +21,6 @@ import com.crowsofwar.avatar.common.data.AbilityData;
 import com.crowsofwar.avatar.common.data.AbilityData.AbilityTreePath;
 import com.crowsofwar.avatar.common.data.AvatarWorldData;
 import com.crowsofwar.avatar.common.data.Bender;
-import com.crowsofwar.avatar.common.data.ScheduledDestroyBlock;
 import com.crowsofwar.avatar.common.data.ctx.AbilityContext;
 import com.crowsofwar.gorecore.util.Vector;
 import net.minecraft.block.Block;
@@ -72,7 +71,7 @@ public class AbilityMining extends Ability {
 			abilityData.addXp(SKILLS_CONFIG.miningUse);
 
 			Vector direction = getDirection(entity);
-			List<Vector> rays = getRaysStartPos(entity, direction);
+			List<BlockPos> rays = getRaysStartPos(entity, direction);
 
 			int dist = getDistance(abilityData.getLevel(), abilityData.getPath());
 			dist += (int) (ctx.getPowerRating() / 40);
@@ -88,17 +87,23 @@ public class AbilityMining extends Ability {
 			Queue<BlockPos> oresToBeMined = new LinkedList<>();
 			Set<BlockPos> alreadyMinedOres = new HashSet<>();
 
-			for (Vector ray : rays) {
+			// Each ray moves exactly one block along each axis of the direction per step, so
+			// the positions can be stepped with integers
+			int stepX = (int) direction.x(), stepY = (int) direction.y(), stepZ = (int) direction.z();
+			BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+
+			for (BlockPos ray : rays) {
 
 				for (int i = 1; i <= dist; i++) {
 
-					BlockPos pos = ray.plus(direction.times(i)).toBlockPos();
+					pos.setPos(ray.getX() + stepX * i, ray.getY() + stepY * i, ray.getZ() + stepZ * i);
 					Block block = world.getBlockState(pos).getBlock();
 
 					// Mark any ores that were found; doesn't actually mine them yet
-					if (isBreakableOre(world, pos)) {
-						oresToBeMined.add(pos);
-						alreadyMinedOres.add(pos);
+					if (isBreakableOre(block)) {
+						BlockPos orePos = pos.toImmutable();
+						oresToBeMined.add(orePos);
+						alreadyMinedOres.add(orePos);
 					}
 
 					// Actually break the block here
@@ -187,24 +192,25 @@ public class AbilityMining extends Ability {
 	 * of each "ray", and then the same direction for every ray can be determined using
 	 * {@link #getDirection(EntityLivingBase)}.
 	 */
-	private List<Vector> getRaysStartPos(EntityLivingBase entity, Vector direction) {
+	private List<BlockPos> getRaysStartPos(EntityLivingBase entity, Vector direction) {
 
 		// Each starting position of the ray to mine out
-		List<Vector> rays = new ArrayList<>();
-		rays.add(new Vector(entity.getPosition()));
-		rays.add(new Vector(entity.getPosition().up()));
+		BlockPos position = entity.getPosition();
+		List<BlockPos> rays = new ArrayList<>();
+		rays.add(position);
+		rays.add(position.up());
 
 		// When yaw is diagonal (not along cardinal direction), add another ray of excavation
 		// because the excavated blocks would only be diagonal and you wouldn't be able to walk
 		// through them
 		if (direction.x() != 0 && direction.z() != 0) {
-			rays.add(new Vector(entity.getPosition().east()));
-			rays.add(new Vector(entity.getPosition().east().up()));
+			rays.add(position.east());
+			rays.add(position.east().up());
 		}
 		// When excavating up/down (ie making a stairway), add height to so you don't bump
 		// your head
 		if (direction.y() != 0) {
-			rays.add(new Vector(entity.getPosition().up(2)));
+			rays.add(position.up(2));
 		}
 
 		return rays;
@@ -226,7 +232,7 @@ public class AbilityMining extends Ability {
 		if (bendable) {
 
 			boolean drop = !ctx.getBender().isCreativeMode();
-			wd.getScheduledDestroyBlocks().add(new ScheduledDestroyBlock(wd, pos, delay, drop, fortune));
+			wd.scheduleDestroyBlock(world.provider.getDimension(), pos.toImmutable(), delay, drop, fortune);
 
 			return true;
 
@@ -270,7 +276,7 @@ public class AbilityMining extends Ability {
 			BlockPos inspectingPos = pos.offset(facing);
 			Block inspectingBlock = world.getBlockState(inspectingPos).getBlock();
 
-			if (isBreakableOre(world, inspectingPos) && !alreadyInspected.contains(inspectingPos)) {
+			if (isBreakableOre(inspectingBlock) && !alreadyInspected.contains(inspectingPos)) {
 
 				queue.add(inspectingPos);
 				alreadyInspected.add(inspectingPos);
@@ -286,8 +292,7 @@ public class AbilityMining extends Ability {
 
 	}
 
-	private boolean isBreakableOre(World world, BlockPos pos) {
-		Block block = world.getBlockState(pos).getBlock();
+	private boolean isBreakableOre(Block block) {
 		return block instanceof BlockOre || block instanceof BlockRedstoneOre;
 	}
 
@@ -17,7 +17,6 @@
 package com.crowsofwar.avatar.common.bending.earth;
 
 import com.crowsofwar.avatar.common.data.AvatarWorldData;
-import com.crowsofwar.avatar.common.data.ScheduledDestroyBlock;
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.player.EntityPlayer;
@@ -30,8 +29,6 @@ import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent.WorldTickEvent;
 
-import java.util.Iterator;
-
 import static com.crowsofwar.avatar.common.config.ConfigStats.STATS_CONFIG;
 
 /**
@@ -61,26 +58,11 @@ public class EarthbendingEvents {
 	@SubscribeEvent
 	public void worldUpdate(WorldTickEvent e) {
 		World world = e.world;
-		if (!world.isRemote && e.phase == TickEvent.Phase.START && world.provider.getDimension() == 0) {
+		if (!world.isRemote && e.phase == TickEvent.Phase.START) {
 
 			AvatarWorldData wd = AvatarWorldData.getDataFromWorld(world);
-			Iterator<ScheduledDestroyBlock> iterator = wd.getScheduledDestroyBlocks().iterator();
-			while (iterator.hasNext()) {
-
-				ScheduledDestroyBlock sdb = iterator.next();
-				sdb.decrementTicks();
-				if (sdb.getTicks() <= 0) {
-
-					BlockPos pos = sdb.getPos();
-					IBlockState blockState = world.getBlockState(pos);
-					Block block = blockState.getBlock();
-					destroyBlock(world, pos, sdb.isDrop(), sdb.getFortune());
-
-					iterator.remove();
-
-				}
-
-			}
+			wd.tickScheduledDestroyBlocks(world.provider.getDimension(), sdb -> destroyBlock(world,
+					sdb.getPos(), sdb.isDrop(), sdb.getFortune()));
 
 		}
 	}
@@ -77,8 +77,8 @@ public class AiFireball extends BendingAi {
 
 	@Override
 	protected boolean shouldExec() {
-		EntityLivingBase target = entity.getAttackTarget();
-		return target != null && entity.getDistanceSq(target) > 4 * 4 && bender.getData().getMiscData().getAbilityCooldown() == 0 && entity.getRNG()
+		EntityLivingBase target = getTarget();
+		return target != null && getTargetDistanceSq() > 4 * 4 && bender.getData().getMiscData().getAbilityCooldown() == 0 && entity.getRNG()
 						.nextBoolean();
 	}
 
@@ -71,8 +71,8 @@ public class AiFlamethrower extends BendingAi {
 
 	@Override
 	protected boolean shouldExec() {
-		EntityLivingBase target = entity.getAttackTarget();
-		return target != null && entity.getDistanceSq(target) < 4 * 4;
+		EntityLivingBase target = getTarget();
+		return target != null && getTargetDistanceSq() < 4 * 4;
 	}
 
 	@Override
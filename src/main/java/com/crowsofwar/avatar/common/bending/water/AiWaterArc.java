@@ -83,8 +83,8 @@ public class AiWaterArc extends BendingAi {
 
 	@Override
 	protected boolean shouldExec() {
-		EntityLivingBase target = entity.getAttackTarget();
-		return target != null && entity.getDistanceSq(target) > 4 * 4 && bender.getData().getMiscData().getAbilityCooldown() == 0;
+		EntityLivingBase target = getTarget();
+		return target != null && getTargetDistanceSq() > 4 * 4 && bender.getData().getMiscData().getAbilityCooldown() == 0;
 	}
 
 	@Override
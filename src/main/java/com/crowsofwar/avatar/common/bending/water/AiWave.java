@@ -41,7 +41,7 @@ public class AiWave extends BendingAi {
 	@Override
 	protected boolean shouldExec() {
 
-		EntityLivingBase target = entity.getAttackTarget();
+		EntityLivingBase target = getTarget();
 		if (target != null && target.isInWater()) {
 
 			return isAtEdgeOfWater();
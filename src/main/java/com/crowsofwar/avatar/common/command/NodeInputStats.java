@@ -0,0 +1,47 @@
+/* 
+  This file is part of AvatarMod.
+    
+  AvatarMod is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+  
+  AvatarMod is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+  
+  You should have received a copy of the GNU General Public License
+  along with AvatarMod. If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package com.crowsofwar.avatar.common.command;
+
+import com.crowsofwar.avatar.common.network.PlayerInputQueue;
+import com.crowsofwar.gorecore.tree.*;
+
+import java.util.List;
+
+import static com.crowsofwar.avatar.common.AvatarChatMessages.MSG_INPUT_STATS;
+
+/**
+ * Shows how many inputs from players the server used, coalesced and ignored since it started.
+ *
+ * @author CrowsOfWar
+ */
+public class NodeInputStats extends NodeFunctional {
+
+	public NodeInputStats() {
+		super("inputs", true);
+	}
+
+	@Override
+	protected ICommandNode doFunction(CommandCall call, List<String> options) {
+
+		MSG_INPUT_STATS.send(call.getFrom(), PlayerInputQueue.getAcceptedInputs(),
+				PlayerInputQueue.getCoalescedInputs(), PlayerInputQueue.getRejectedInputs());
+		return null;
+
+	}
+
+}
@@ -32,6 +32,11 @@ public class ConfigClient {
 
 	public static ConfigClient CLIENT_CONFIG = new ConfigClient();
 
+	/**
+	 * Incremented whenever the keymappings or conflicts are loaded or saved
+	 */
+	private static int keymappingsVersion = 0;
+
 	@Load
 	public float radialMenuAlpha = 0.75f;
 
@@ -52,6 +57,7 @@ public class ConfigClient {
 
 	public static void load() {
 		ConfigLoader.load(CLIENT_CONFIG, "avatar/cosmetic.yml");
+		keymappingsVersion++;
 
 		CLIENT_CONFIG.keymappings.clear();
 		Set<Map.Entry<String, Integer>> entries = CLIENT_CONFIG.nameKeymappings.entrySet();
@@ -98,6 +104,15 @@ public class ConfigClient {
 		}
 
 		ConfigLoader.save(CLIENT_CONFIG, "avatar/cosmetic.yml");
+		keymappingsVersion++;
+	}
+
+	/**
+	 * Returns a number which changes every time the keymappings or conflicts are loaded or saved.
+	 * Used to find out when information computed from them needs to be updated.
+	 */
+	public static int getKeymappingsVersion() {
+		return keymappingsVersion;
 	}
 
 }
@@ -106,6 +106,15 @@ public class ConfigMobs {
 	@Load
 	public float bisonBreedMinMinutes = 60, bisonBreedMaxMinutes = 120;
 
+	/**
+	 * How many mobs can decide whether to use their bending each tick, and the minimum amount of
+	 * ticks between each mob's decisions. Mobs only try to decide every 3 ticks, so the actual
+	 * time between decisions is the interval rounded up to a multiple of 3; an interval of 3 or
+	 * less lets mobs decide as often as they would without the limit.
+	 */
+	@Load
+	public int bendingAiEvaluationsPerTick = 20, bendingAiMinInterval = 3;
+
 	@Load
 	private Map<String, Integer> bisonFoods;
 	private Map<Item, Integer> bisonFoodList;
@@ -69,6 +69,9 @@ public class ConfigStats {
 	@Load
 	public LightningRazeSettings lightningRazeSettings = new LightningRazeSettings();
 
+	@Load
+	public ParticleSettings particleSettings = new ParticleSettings();
+
 	// @formatter:off
 	@Load
 	public float chiAirblade = 1f,
@@ -143,9 +146,24 @@ public class ConfigStats {
 	@Load
 	public boolean addDungeonLoot = true;
 
+	/**
+	 * Whether each player's bending data is saved to its own file, instead of all of it being
+	 * saved together with the rest of the Avatar world data.
+	 */
+	@Load
+	public boolean separatePlayerDataFiles = false;
+
 	@Load
 	public boolean preventPickupBlockGriefing = false;
 
+	/**
+	 * How many abilities a player can activate at once, and how many more they can activate
+	 * each second after that. Further ability inputs are ignored. Status controls aren't
+	 * limited by this.
+	 */
+	@Load
+	public float inputBurst = 16, inputsPerSecond = 8;
+
 	@Load
 	public float cleanseChiGroupBonus = 2f;
 
@@ -310,6 +328,24 @@ public class ConfigStats {
 
 	}
 
+	public static class ParticleSettings {
+
+		@Load
+		public int budgetPerPlayer = 300;
+		//Maximum particles sent to one player each tick. Bursts farthest from the player are
+		//dropped first when over budget
+
+		@Load
+		public double fullDetailDistance = 16;
+		//Players closer than this receive every particle of a burst
+
+		@Load
+		public double maxDistance = 48;
+		//Players farther than this receive no particles. Between fullDetailDistance and
+		//maxDistance, the amount of particles decreases linearly
+
+	}
+
 	public static class LightningRazeSettings {
 
 		@Load
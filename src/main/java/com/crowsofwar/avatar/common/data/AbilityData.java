@@ -19,6 +19,7 @@ package com.crowsofwar.avatar.common.data;
 
 import com.crowsofwar.avatar.common.bending.Abilities;
 import com.crowsofwar.avatar.common.bending.Ability;
+import com.crowsofwar.avatar.common.network.NetworkIds;
 import com.crowsofwar.gorecore.util.GoreCoreByteBufUtil;
 import io.netty.buffer.ByteBuf;
 import net.minecraft.entity.EntityLivingBase;
@@ -38,6 +39,11 @@ public class AbilityData {
 
 	public static final int MAX_LEVEL = 3;
 
+	/**
+	 * Flags for {@link #getChangedFields()}
+	 */
+	public static final int FIELD_XP = 1, FIELD_LEVEL = 2, FIELD_PATH = 4, ALL_FIELDS = 7;
+
 	private final BendingData data;
 	private final String abilityName;
 	private float lastXp;
@@ -49,6 +55,11 @@ public class AbilityData {
 	 */
 	private int level;
 	private AbilityTreePath path;
+	/**
+	 * Bit flags of fields which changed since last synced to client. On client, bit flags of
+	 * fields which were sent in a delta update.
+	 */
+	private int changedFields;
 
 	public AbilityData(BendingData data, Ability ability) {
 		this(data, ability.getName());
@@ -63,13 +74,29 @@ public class AbilityData {
 	}
 
 	/**
-	 * Reads ability data from the network.
+	 * Reads ability data from the network. Returns null if the ability is unknown.
 	 */
+	@Nullable
 	public static AbilityData createFromBytes(ByteBuf buf, BendingData data) {
-		String abilityName = GoreCoreByteBufUtil.readString(buf);
-		AbilityData abilityData = new AbilityData(data, abilityName);
+		Ability ability = NetworkIds.abilityFromServer(GoreCoreByteBufUtil.readVarInt(buf));
+		AbilityData abilityData = new AbilityData(data, ability == null ? null : ability.getName());
 		abilityData.fromBytes(buf);
-		return abilityData;
+		return ability == null ? null : abilityData;
+	}
+
+	/**
+	 * Reads ability data from a delta update on the network. Only the fields in
+	 * {@link #getChangedFields()} of the returned ability data were sent.
+	 */
+	@Nullable
+	public static AbilityData createFromDeltaBytes(ByteBuf buf, BendingData data) {
+		Ability ability = NetworkIds.abilityFromServer(GoreCoreByteBufUtil.readVarInt(buf));
+		AbilityData abilityData = new AbilityData(data, ability == null ? null : ability.getName());
+		abilityData.changedFields = buf.readByte();
+		if ((abilityData.changedFields & FIELD_XP) != 0) abilityData.xp = buf.readFloat();
+		if ((abilityData.changedFields & FIELD_LEVEL) != 0) abilityData.level = buf.readByte();
+		if ((abilityData.changedFields & FIELD_PATH) != 0) abilityData.path = AbilityTreePath.get(buf.readByte());
+		return ability == null ? null : abilityData;
 	}
 
 	public static AbilityData get(EntityLivingBase entity, String abilityName) {
@@ -111,6 +138,7 @@ public class AbilityData {
 		if (level < -1) level = -1;
 		if (level > MAX_LEVEL) level = MAX_LEVEL;
 		this.level = level;
+		changedFields |= FIELD_LEVEL;
 		checkPath();
 		save();
 	}
@@ -151,6 +179,7 @@ public class AbilityData {
 	 */
 	public void setPath(AbilityTreePath path) {
 		this.path = path;
+		changedFields |= FIELD_PATH;
 		checkPath();
 		save();
 	}
@@ -198,6 +227,7 @@ public class AbilityData {
 		}
 
 		this.xp = xp;
+		changedFields |= FIELD_XP;
 		save();
 
 	}
@@ -266,6 +296,8 @@ public class AbilityData {
 	public void unlockAbility() {
 		if (isLocked()) {
 			level = 0;
+			changedFields |= FIELD_LEVEL;
+			data.markAbilityDataChanged(abilityName);
 		}
 	}
 
@@ -284,7 +316,7 @@ public class AbilityData {
 	}
 
 	public void toBytes(ByteBuf buf) {
-		GoreCoreByteBufUtil.writeString(buf, abilityName);
+		GoreCoreByteBufUtil.writeVarInt(buf, Abilities.getNetworkId(abilityName));
 		buf.writeFloat(xp);
 		buf.writeInt(level);
 		buf.writeInt(path.id());
@@ -296,10 +328,47 @@ public class AbilityData {
 		path = AbilityTreePath.get(buf.readInt());
 	}
 
+	/**
+	 * Writes only the fields which changed since the last sync. Read with
+	 * {@link #createFromDeltaBytes(ByteBuf, BendingData)}.
+	 */
+	public void deltaToBytes(ByteBuf buf) {
+		GoreCoreByteBufUtil.writeVarInt(buf, Abilities.getNetworkId(abilityName));
+		buf.writeByte(changedFields);
+		if ((changedFields & FIELD_XP) != 0) buf.writeFloat(xp);
+		if ((changedFields & FIELD_LEVEL) != 0) buf.writeByte(level);
+		if ((changedFields & FIELD_PATH) != 0) buf.writeByte(path.id());
+	}
+
+	/**
+	 * Copies the fields present in a delta update into this ability data.
+	 */
+	public void applyDelta(AbilityData delta) {
+		if ((delta.changedFields & FIELD_XP) != 0) xp = delta.xp;
+		if ((delta.changedFields & FIELD_LEVEL) != 0) level = delta.level;
+		if ((delta.changedFields & FIELD_PATH) != 0) path = delta.path;
+	}
+
+	/**
+	 * Gets bit flags of the fields which changed since the last time this ability data was synced.
+	 * See {@link #FIELD_XP}, {@link #FIELD_LEVEL}, {@link #FIELD_PATH}.
+	 */
+	public int getChangedFields() {
+		return changedFields;
+	}
+
+	/**
+	 * Called after this ability data was sent to clients.
+	 */
+	public void clearChangedFields() {
+		changedFields = 0;
+	}
+
 	/**
 	 * Saves but does not sync
 	 */
 	private void save() {
+		data.markAbilityDataChanged(abilityName);
 		data.save(DataCategory.ABILITY_DATA);
 	}
 
@@ -0,0 +1,50 @@
+/* 
+  This file is part of AvatarMod.
+    
+  AvatarMod is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+  
+  AvatarMod is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+  
+  You should have received a copy of the GNU General Public License
+  along with AvatarMod. If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.crowsofwar.avatar.common.data;
+
+import java.util.Collection;
+
+/**
+ * A batch of ability data sent over the network for {@link DataCategory#ABILITY_DATA}. Either a
+ * full snapshot, which replaces all ability data on the receiving side, or a delta containing
+ * only the ability data (and only the fields) which changed since the last sync.
+ *
+ * @author CrowsOfWar
+ */
+public class AbilityDataUpdate {
+
+	private final boolean fullSnapshot;
+	private final Collection<AbilityData> entries;
+
+	public AbilityDataUpdate(boolean fullSnapshot, Collection<AbilityData> entries) {
+		this.fullSnapshot = fullSnapshot;
+		this.entries = entries;
+	}
+
+	/**
+	 * Whether this update contains every ability data. If false, only contains changed ability
+	 * data, and only the {@link AbilityData#getChangedFields() changed fields} of each are valid.
+	 */
+	public boolean isFullSnapshot() {
+		return fullSnapshot;
+	}
+
+	public Collection<AbilityData> getEntries() {
+		return entries;
+	}
+
+}
@@ -41,18 +41,8 @@ public class AvatarPlayerData extends PlayerData {
 	 */
 	private SortedSet<DataCategory> changed;
 
-	/**
-	 * For use by server thread only. This represents the ticksExisted value (Entity#ticksExisted)
-	 * when the last information packet <strong>only about chi</strong> to client was sent.
-	 * <p>
-	 * Used to limit the amount of only-chi-related packets that are sent, since that is most
-	 * of the packets that try to be sent
-	 */
-	private int lastChiPacketTime;
-
 	public AvatarPlayerData(DataSaver dataSaver, UUID playerID, EntityPlayer player) {
 		super(dataSaver, playerID, player);
-		lastChiPacketTime = -1;
 
 		boolean isClient = !(player instanceof EntityPlayerMP);
 
@@ -82,12 +72,31 @@ public class AvatarPlayerData extends PlayerData {
 
 	public void save(DataCategory category) {
 		changed.add(category);
-		sendPacket();
-		saveChanges();
+		queueSync();
 	}
 
 	public void saveAll() {
 		changed.addAll(Arrays.asList(DataCategory.values()));
+		queueSync();
+	}
+
+	/**
+	 * On server, defers sending the changed categories until the end of the tick, so multiple
+	 * changes in the same tick only send one packet. See {@link PlayerDataSyncHandler}.
+	 */
+	private void queueSync() {
+		EntityPlayer player = getPlayerEntity();
+		if (player != null && player.world.isRemote) {
+			syncChanges();
+		} else {
+			PlayerDataSyncHandler.queueSync(this);
+		}
+	}
+
+	/**
+	 * Sends all changed categories to clients and marks the data to be saved.
+	 */
+	void syncChanges() {
 		sendPacket();
 		saveChanges();
 	}
@@ -98,11 +107,6 @@ public class AvatarPlayerData extends PlayerData {
 		EntityPlayer player = getPlayerEntity();
 		if (player != null && !player.world.isRemote) {
 
-			// Enforce limits for chi-only packets
-			if (!doesChiLimitPass(player)) {
-				return;
-			}
-
 			// Look at who is tracking this player, to avoid unnecessarily
 			// sending packets to extra players
 			EntityTracker tracker = ((WorldServer) player.world).getEntityTracker();
@@ -122,6 +126,9 @@ public class AvatarPlayerData extends PlayerData {
 
 			AvatarMod.network.sendToAllAround(packet, new TargetPoint(player.dimension, player.posX, player.posY, player.posZ, range));
 
+			if (changed.contains(DataCategory.ABILITY_DATA)) {
+				bendingData.onAbilityDataSynced();
+			}
 			changed.clear();
 
 		}
@@ -132,30 +139,6 @@ public class AvatarPlayerData extends PlayerData {
 		return bendingData;
 	}
 
-	/**
-	 * To be called when sending an update packet. Performs rate limiting for chi only packets
-	 * (i.e., where the only value sent is the chi). They aren't as important as other data and
-	 * clog up the network.
-	 *
-	 * @return Whether the rate limit has approved the chi packet, or the packet wasn't about chi
-	 * anyways
-	 */
-	private boolean doesChiLimitPass(EntityPlayer player) {
-
-		if (changed.size() == 1 && changed.first() == DataCategory.CHI) {
-
-			// Don't send chi-only packets more than once a second
-			if (player.ticksExisted - lastChiPacketTime < 20 && lastChiPacketTime != -1) {
-				return false;
-			}
-			lastChiPacketTime = player.ticksExisted;
-
-		}
-
-		return true;
-
-	}
-
 	@Override
 	protected void saveChanges() {
 		super.saveChanges();
@@ -17,29 +17,39 @@
 
 package com.crowsofwar.avatar.common.data;
 
-import com.crowsofwar.avatar.common.util.AvatarUtils;
+import com.crowsofwar.avatar.common.util.TimerWheel;
 import com.crowsofwar.gorecore.data.PlayerData;
 import com.crowsofwar.gorecore.data.WorldDataPlayers;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static com.crowsofwar.avatar.common.config.ConfigStats.STATS_CONFIG;
 
 public class AvatarWorldData extends WorldDataPlayers<AvatarPlayerData> {
 
 	public static final String WORLD_DATA_KEY = "Avatar";
 	private int nextEntityId;
 
-	private List<ScheduledDestroyBlock> scheduledDestroyBlocks;
-	private List<TemporaryWaterLocation> temporaryWater;
+	/**
+	 * Timer wheels of blocks to destroy, by dimension id
+	 */
+	private final Map<Integer, TimerWheel<ScheduledDestroyBlock>> scheduledDestroyBlocks;
+	/**
+	 * Timer wheels of temporary water to remove, by dimension id
+	 */
+	private final Map<Integer, TimerWheel<TemporaryWaterLocation>> temporaryWater;
 
 	public AvatarWorldData() {
 		super(WORLD_DATA_KEY);
 		nextEntityId = 1;
-		scheduledDestroyBlocks = new ArrayList<>();
-		temporaryWater = new ArrayList<>();
+		scheduledDestroyBlocks = new HashMap<>();
+		temporaryWater = new HashMap<>();
 	}
 
 	public AvatarWorldData(String key) {
@@ -60,26 +70,35 @@ public class AvatarWorldData extends WorldDataPlayers<AvatarPlayerData> {
 		return AvatarPlayerData.class;
 	}
 
+	@Override
+	protected boolean usePlayerFiles() {
+		return STATS_CONFIG.separatePlayerDataFiles;
+	}
+
 	@Override
 	public void readFromNBT(NBTTagCompound nbt) {
 		super.readFromNBT(nbt);
 		nextEntityId = nbt.getInteger("NextEntityId");
 
-		AvatarUtils.readList(scheduledDestroyBlocks, compound -> {
-
+		// Scheduled destroy blocks saved before they were separated by dimension were
+		// always destroyed in the overworld, so a missing Dimension tag reads as 0
+		scheduledDestroyBlocks.clear();
+		NBTTagList destroyBlocks = nbt.getTagList("DestroyBlocks", 10);
+		for (int i = 0; i < destroyBlocks.tagCount(); i++) {
+			NBTTagCompound compound = destroyBlocks.getCompoundTagAt(i);
 			BlockPos pos = new BlockPos(compound.getInteger("x"), compound.getInteger("y"),
 					compound.getInteger("z"));
-			return new ScheduledDestroyBlock(this, pos, compound.getInteger("Ticks"),
+			scheduleDestroyBlock(compound.getInteger("Dimension"), pos, compound.getInteger("Ticks"),
 					compound.getBoolean("Drop"), compound.getInteger("Fortune"));
+		}
 
-		}, nbt, "DestroyBlocks");
-
-		AvatarUtils.readList(temporaryWater, c -> {
-
+		temporaryWater.clear();
+		NBTTagList water = nbt.getTagList("TemporaryWater", 10);
+		for (int i = 0; i < water.tagCount(); i++) {
+			NBTTagCompound c = water.getCompoundTagAt(i);
 			BlockPos pos = new BlockPos(c.getInteger("x"), c.getInteger("y"), c.getInteger("z"));
-			return new TemporaryWaterLocation(this, pos, c.getInteger("Dimension"), c.getInteger("Ticks"));
-
-		}, nbt, "TemporaryWater");
+			addTemporaryWaterLocation(pos, c.getInteger("Dimension"), c.getInteger("Ticks"));
+		}
 
 	}
 
@@ -87,21 +106,38 @@ public class AvatarWorldData extends WorldDataPlayers<AvatarPlayerData> {
 	public NBTTagCompound writeToNBT(NBTTagCompound nbt) {
 		super.writeToNBT(nbt);
 		nbt.setInteger("NextEntityId", nextEntityId);
-		AvatarUtils.writeList(scheduledDestroyBlocks, (compound, sdb) -> {
-			compound.setInteger("x", sdb.pos.getX());
-			compound.setInteger("y", sdb.pos.getY());
-			compound.setInteger("z", sdb.pos.getZ());
-			compound.setInteger("Ticks", sdb.ticks);
-			compound.setBoolean("Drop", sdb.drop);
-			compound.setInteger("Fortune", sdb.fortune);
-		}, nbt, "DestroyBlocks");
-		AvatarUtils.writeList(temporaryWater, (c, water) -> {
-			c.setInteger("x", water.getPos().getX());
-			c.setInteger("y", water.getPos().getY());
-			c.setInteger("z", water.getPos().getZ());
-			c.setInteger("Ticks", water.getTicks());
-			c.setInteger("Dimension", water.getDimension());
-		}, nbt, "TemporaryWater");
+
+		NBTTagList destroyBlocks = new NBTTagList();
+		for (Map.Entry<Integer, TimerWheel<ScheduledDestroyBlock>> entry : scheduledDestroyBlocks.entrySet()) {
+			int dimension = entry.getKey();
+			entry.getValue().forEach((sdb, ticks) -> {
+				NBTTagCompound compound = new NBTTagCompound();
+				compound.setInteger("x", sdb.pos.getX());
+				compound.setInteger("y", sdb.pos.getY());
+				compound.setInteger("z", sdb.pos.getZ());
+				compound.setInteger("Ticks", ticks);
+				compound.setBoolean("Drop", sdb.drop);
+				compound.setInteger("Fortune", sdb.fortune);
+				compound.setInteger("Dimension", dimension);
+				destroyBlocks.appendTag(compound);
+			});
+		}
+		nbt.setTag("DestroyBlocks", destroyBlocks);
+
+		NBTTagList water = new NBTTagList();
+		for (TimerWheel<TemporaryWaterLocation> wheel : temporaryWater.values()) {
+			wheel.forEach((twl, ticks) -> {
+				NBTTagCompound c = new NBTTagCompound();
+				c.setInteger("x", twl.getPos().getX());
+				c.setInteger("y", twl.getPos().getY());
+				c.setInteger("z", twl.getPos().getZ());
+				c.setInteger("Ticks", ticks);
+				c.setInteger("Dimension", twl.getDimension());
+				water.appendTag(c);
+			});
+		}
+		nbt.setTag("TemporaryWater", water);
+
 		return nbt;
 	}
 
@@ -109,16 +145,53 @@ public class AvatarWorldData extends WorldDataPlayers<AvatarPlayerData> {
 		return ++nextEntityId;
 	}
 
-	public List<ScheduledDestroyBlock> getScheduledDestroyBlocks() {
-		return scheduledDestroyBlocks;
+	/**
+	 * Schedules the block in that dimension to be destroyed after the given amount of ticks.
+	 */
+	public void scheduleDestroyBlock(int dimension, BlockPos pos, int ticks, boolean drop, int fortune) {
+		scheduledDestroyBlocks.computeIfAbsent(dimension, dim -> new TimerWheel<>())
+				.schedule(new ScheduledDestroyBlock(pos, drop, fortune), ticks);
+		setDirty(true);
 	}
 
-	public List<TemporaryWaterLocation> geTemporaryWaterLocations() {
-		return temporaryWater;
+	/**
+	 * Advances the scheduled destroy blocks of that dimension by one tick. Should be called once
+	 * per tick of that dimension.
+	 *
+	 * @param onExpired Called for each block which should now be destroyed
+	 */
+	public void tickScheduledDestroyBlocks(int dimension, Consumer<ScheduledDestroyBlock> onExpired) {
+		tickWheel(scheduledDestroyBlocks.get(dimension), onExpired);
 	}
 
 	public void addTemporaryWaterLocation(BlockPos pos) {
-		temporaryWater.add(new TemporaryWaterLocation(this, pos, getWorld().provider.getDimension(), 15));
+		addTemporaryWaterLocation(pos, getWorld().provider.getDimension(), 15);
+	}
+
+	private void addTemporaryWaterLocation(BlockPos pos, int dimension, int ticks) {
+		temporaryWater.computeIfAbsent(dimension, dim -> new TimerWheel<>())
+				.schedule(new TemporaryWaterLocation(pos, dimension), ticks);
+		setDirty(true);
+	}
+
+	/**
+	 * Advances the temporary water of that dimension by one tick. Should be called once per tick
+	 * of that dimension.
+	 *
+	 * @param onExpired Called for each temporary water which should now be removed
+	 */
+	public void tickTemporaryWater(int dimension, Consumer<TemporaryWaterLocation> onExpired) {
+		tickWheel(temporaryWater.get(dimension), onExpired);
+	}
+
+	private <T> void tickWheel(TimerWheel<T> wheel, Consumer<T> onExpired) {
+		if (wheel != null && !wheel.isEmpty()) {
+			int size = wheel.size();
+			wheel.tick(onExpired);
+			if (wheel.size() != size) {
+				setDirty(true);
+			}
+		}
 	}
 
 }
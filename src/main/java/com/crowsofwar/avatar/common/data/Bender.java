@@ -50,6 +50,12 @@ import static com.crowsofwar.avatar.common.config.ConfigChi.CHI_CONFIG;
  */
 public abstract class Bender {
 
+	/**
+	 * Chi regeneration isn't synced as it happens, since the client predicts it. Instead, chi is
+	 * sent to correct the client this often (in ticks).
+	 */
+	public static final int CHI_SYNC_INTERVAL = 60;
+
 	protected WallJumpManager wallJumpManager = new WallJumpManager(this);
 
 	/**
@@ -253,45 +259,37 @@ public abstract class Bender {
 
 		BendingContext ctx = new BendingContext(data, entity, this, new Raytrace.Result());
 
-		// Update chi
+		// Update chi; done on both sides so the client can predict regeneration
 
-		if (!world.isRemote) {
-			Chi chi = data.chi();
+		Chi chi = data.chi();
 
-			if (entity.isPlayerSleeping()) {
-				chi.changeTotalChi(CHI_CONFIG.regenInBed / 20f);
-			} else {
-				chi.changeTotalChi(CHI_CONFIG.regenPerSecond / 20f);
-			}
-			if (data.hasBendingId(Waterbending.ID) && entity.isInWater()) {
-				chi.changeTotalChi(CHI_CONFIG.regenInWater/20F);
-			}
+		float totalRegen;
+		if (entity.isPlayerSleeping()) {
+			totalRegen = CHI_CONFIG.regenInBed / 20f;
+		} else {
+			totalRegen = CHI_CONFIG.regenPerSecond / 20f;
+		}
+		if (data.hasBendingId(Waterbending.ID) && entity.isInWater()) {
+			totalRegen += CHI_CONFIG.regenInWater / 20f;
+		}
+		if (data.hasBendingId(Airbending.ID)) {
+			totalRegen += CHI_CONFIG.regenPerSecond / 10;
+		}
 
-			if (data.hasBendingId(Airbending.ID)) {
-				chi.changeTotalChi(CHI_CONFIG.regenPerSecond/10);
-			}
+		float availableRegen = 0;
+		if (chi.getAvailableChi() < CHI_CONFIG.maxAvailableChi) {
+			availableRegen = CHI_CONFIG.availablePerSecond / 20f;
+		}
 
-			if (chi.getAvailableChi() < CHI_CONFIG.maxAvailableChi) {
-				chi.changeAvailableChi(CHI_CONFIG.availablePerSecond / 20f);
-			}
+		chi.regenerate(totalRegen, availableRegen);
 
+		if (entity instanceof EntityPlayer && !world.isRemote && entity.ticksExisted % CHI_SYNC_INTERVAL == 0) {
+			data.save(DataCategory.CHI);
 		}
 
 		// Tick the TickHandlers
 
-		List<TickHandler> tickHandlers = data.getAllTickHandlers();
-		if (tickHandlers != null) {
-			for (TickHandler handler : tickHandlers) {
-				if (handler.tick(ctx)) {
-					// Can use this since the list is a COPY of the
-					// underlying list
-					data.removeTickHandler(handler);
-				} else {
-					int newDuration = data.getTickHandlerDuration(handler) + 1;
-					data.setTickHandlerDuration(handler, newDuration);
-				}
-			}
-		}
+		data.updateTickHandlers(ctx);
 
 		// Update bending managers
 
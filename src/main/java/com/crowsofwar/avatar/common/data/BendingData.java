@@ -23,6 +23,7 @@ import net.minecraft.world.World;
 
 import com.crowsofwar.avatar.AvatarLog;
 import com.crowsofwar.avatar.common.bending.*;
+import com.crowsofwar.avatar.common.data.ctx.BendingContext;
 import com.crowsofwar.avatar.common.util.AvatarUtils;
 
 import javax.annotation.*;
@@ -39,13 +40,46 @@ import static com.crowsofwar.gorecore.util.GoreCoreNBTUtil.nestedCompound;
 public class BendingData {
 
 	private static final int CURRENT_SAVE_VERSION = 1;
+	/**
+	 * Amount of ability data syncs between full (non-delta) ability data syncs
+	 */
+	private static final int FULL_ABILITY_DATA_SYNC_INTERVAL = 40;
 	private final Consumer<DataCategory> saveCategory;
 	private final Runnable saveAll;
 	private final Set<UUID> bendings;
 	private final Set<StatusControl> statusControls;
+	private final Set<StatusControl> statusControlsView;
 	private final Map<String, AbilityData> abilityData;
-	private final Set<TickHandler> tickHandlers;
-	private final Map<TickHandler, Integer> tickHandlerDuration;
+	/**
+	 * Names of ability data which changed since ability data was last synced
+	 */
+	private final Set<String> changedAbilityData;
+	/**
+	 * Whether the next ability data sync must send every ability data, instead of only the
+	 * changes. Periodically set so clients can recover from any missed changes.
+	 */
+	private boolean fullAbilityDataSync;
+	private int abilityDataSyncs;
+	/**
+	 * Client-side, whether a delta contained ability data which isn't known, so the ability data
+	 * is incomplete until the next full snapshot
+	 */
+	private boolean abilityDataIncomplete;
+	private boolean abilityDataSnapshotRequested;
+	/**
+	 * Active tick handlers, indexed by {@link TickHandler#id()}
+	 */
+	private final BitSet tickHandlers;
+	/**
+	 * Copy of the active tick handlers which is iterated while ticking, since handlers may add or
+	 * remove other handlers. Kept to avoid copying the handlers each tick.
+	 */
+	private final BitSet tickingHandlers;
+	/**
+	 * How many ticks each active tick handler has been executing for, indexed by
+	 * {@link TickHandler#id()}
+	 */
+	private int[] tickHandlerDuration;
 	private BattlePerformanceScore performance;
 	private UUID activeBending;
 	private Chi chi;
@@ -65,9 +99,13 @@ public class BendingData {
 
 		bendings = new HashSet<>();
 		statusControls = new HashSet<>();
+		statusControlsView = Collections.unmodifiableSet(statusControls);
 		abilityData = new HashMap<>();
-		tickHandlers = new HashSet<>();
-		tickHandlerDuration = new HashMap<>();
+		changedAbilityData = new HashSet<>();
+		fullAbilityDataSync = true;
+		tickHandlers = new BitSet();
+		tickingHandlers = new BitSet();
+		tickHandlerDuration = new int[16];
 		activeBending = null;
 		chi = new Chi(this);
 		miscData = new MiscData(() -> save(DataCategory.MISC_DATA));
@@ -240,6 +278,14 @@ public class BendingData {
 		return new ArrayList<>(statusControls);
 	}
 
+	/**
+	 * Returns an unmodifiable view of the status controls. Unlike {@link #getAllStatusControls()},
+	 * this doesn't copy the status controls, so they must not be added or removed while iterating.
+	 */
+	public Set<StatusControl> getStatusControlsView() {
+		return statusControlsView;
+	}
+
 	public void setAllStatusControls(List<StatusControl> controls) {
 		statusControls.clear();
 		statusControls.addAll(controls);
@@ -270,6 +316,7 @@ public class BendingData {
 		if (data == null) {
 			data = new AbilityData(this, Abilities.get(abilityName));
 			abilityData.put(abilityName, data);
+			fullAbilityDataSync = true;
 			save(DataCategory.ABILITY_DATA);
 		}
 
@@ -282,6 +329,7 @@ public class BendingData {
 
 	public void setAbilityData(String abilityName, AbilityData data) {
 		abilityData.put(abilityName, data);
+		fullAbilityDataSync = true;
 	}
 
 	public void setAbilityData(Ability ability, AbilityData data) {
@@ -303,6 +351,7 @@ public class BendingData {
 	public void setAbilityDataMap(Map<String, AbilityData> map) {
 		abilityData.clear();
 		abilityData.putAll(map);
+		fullAbilityDataSync = true;
 	}
 
 	/**
@@ -311,6 +360,86 @@ public class BendingData {
 
 	public void clearAbilityData() {
 		abilityData.clear();
+		fullAbilityDataSync = true;
+	}
+
+	/**
+	 * Gets the ability data which needs to be sent to clients; either every ability data, or
+	 * only the ones which changed since the last sync.
+	 */
+	public AbilityDataUpdate getAbilityDataUpdate() {
+		if (fullAbilityDataSync) {
+			return new AbilityDataUpdate(true, getAllAbilityData());
+		}
+
+		List<AbilityData> changed = new ArrayList<>(changedAbilityData.size());
+		for (String abilityName : changedAbilityData) {
+			AbilityData data = abilityData.get(abilityName);
+			if (data != null) {
+				changed.add(data);
+			}
+		}
+		return new AbilityDataUpdate(false, changed);
+	}
+
+	/**
+	 * Receives ability data sent by {@link #getAbilityDataUpdate()}. Changes to ability data
+	 * which isn't known are ignored, since only the changed fields are valid; see
+	 * {@link #shouldRequestAbilityDataSnapshot()}.
+	 */
+	public void applyAbilityDataUpdate(AbilityDataUpdate update) {
+		if (update.isFullSnapshot()) {
+			abilityData.clear();
+			abilityDataIncomplete = false;
+			abilityDataSnapshotRequested = false;
+		}
+		for (AbilityData received : update.getEntries()) {
+			AbilityData existing = abilityData.get(received.getAbilityName());
+			if (update.isFullSnapshot()) {
+				abilityData.put(received.getAbilityName(), received);
+			} else if (existing != null) {
+				existing.applyDelta(received);
+			} else {
+				abilityDataIncomplete = true;
+			}
+		}
+	}
+
+	/**
+	 * Client-side, returns whether a full snapshot of the ability data should be requested from
+	 * the server, because a delta was received without a baseline. Only returns true once until
+	 * the snapshot arrives.
+	 */
+	public boolean shouldRequestAbilityDataSnapshot() {
+		if (abilityDataIncomplete && !abilityDataSnapshotRequested) {
+			abilityDataSnapshotRequested = true;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Marks the ability data as changed, so it will be included in the next delta sync.
+	 */
+	void markAbilityDataChanged(String abilityName) {
+		changedAbilityData.add(abilityName);
+	}
+
+	/**
+	 * Called after ability data was sent to clients. Resets the changes, and schedules a full
+	 * sync every so often.
+	 */
+	public void onAbilityDataSynced() {
+		for (String abilityName : changedAbilityData) {
+			AbilityData data = abilityData.get(abilityName);
+			if (data != null) {
+				data.clearChangedFields();
+			}
+		}
+		changedAbilityData.clear();
+
+		abilityDataSyncs++;
+		fullAbilityDataSync = abilityDataSyncs % FULL_ABILITY_DATA_SYNC_INTERVAL == 0;
 	}
 
 	// ================================================================================
@@ -359,7 +488,7 @@ public class BendingData {
 	// ================================================================================
 
 	public boolean hasTickHandler(TickHandler handler) {
-		return tickHandlers.contains(handler);
+		return tickHandlers.get(handler.id());
 	}
 
 	/**
@@ -369,7 +498,7 @@ public class BendingData {
 	 */
 	public int getTickHandlerDuration(TickHandler handler) {
 		if (hasTickHandler(handler)) {
-			return tickHandlerDuration.get(handler);
+			return tickHandlerDuration[handler.id()];
 		} else {
 			return -1;
 		}
@@ -377,40 +506,73 @@ public class BendingData {
 
 	public void setTickHandlerDuration(TickHandler handler, int duration) {
 		if (hasTickHandler(handler)) {
-			tickHandlerDuration.put(handler, duration);
+			tickHandlerDuration[handler.id()] = duration;
 		}
 	}
 
 	public void addTickHandler(TickHandler handler) {
-		if (tickHandlers.add(handler)) {
-			tickHandlerDuration.put(handler, 0);
+		if (!hasTickHandler(handler)) {
+			putTickHandler(handler);
 			save(DataCategory.TICK_HANDLERS);
 		}
 	}
 
 	public void removeTickHandler(TickHandler handler) {
-		if (tickHandlers.remove(handler)) {
-			tickHandlerDuration.remove(handler);
+		if (hasTickHandler(handler)) {
+			tickHandlers.clear(handler.id());
 			save(DataCategory.TICK_HANDLERS);
 		}
 	}
 
+	/**
+	 * Ticks every active tick handler once, removing handlers which are finished and
+	 * incrementing the duration of the others.
+	 */
+	public void updateTickHandlers(BendingContext ctx) {
+		tickingHandlers.clear();
+		tickingHandlers.or(tickHandlers);
+
+		for (int id = tickingHandlers.nextSetBit(0); id >= 0; id = tickingHandlers.nextSetBit(id + 1)) {
+			TickHandler handler = TickHandler.fromId(id);
+			if (handler.tick(ctx)) {
+				removeTickHandler(handler);
+			} else if (tickHandlers.get(id)) {
+				tickHandlerDuration[id]++;
+			}
+		}
+	}
+
 	public List<TickHandler> getAllTickHandlers() {
-		return new ArrayList<>(tickHandlers);
+		List<TickHandler> list = new ArrayList<>(tickHandlers.cardinality());
+		for (int id = tickHandlers.nextSetBit(0); id >= 0; id = tickHandlers.nextSetBit(id + 1)) {
+			list.add(TickHandler.fromId(id));
+		}
+		return list;
 	}
 
 	public void setAllTickHandlers(List<TickHandler> handlers) {
 		tickHandlers.clear();
-		tickHandlers.addAll(handlers);
-
-		Map<TickHandler, Integer> newDurations = handlers.stream().collect(Collectors.toMap(Function.identity(), h -> 0));
-		tickHandlerDuration.clear();
-		tickHandlerDuration.putAll(newDurations);
+		for (TickHandler handler : handlers) {
+			if (handler != null) {
+				putTickHandler(handler);
+			}
+		}
 	}
 
 	public void clearTickHandlers() {
 		tickHandlers.clear();
-		tickHandlerDuration.clear();
+	}
+
+	/**
+	 * Marks the handler as active with a duration of 0, without saving.
+	 */
+	private void putTickHandler(TickHandler handler) {
+		int id = handler.id();
+		if (id >= tickHandlerDuration.length) {
+			tickHandlerDuration = Arrays.copyOf(tickHandlerDuration, Math.max(id + 1, tickHandlerDuration.length * 2));
+		}
+		tickHandlers.set(id);
+		tickHandlerDuration[id] = 0;
 	}
 
 	// ================================================================================
@@ -526,7 +688,7 @@ public class BendingData {
 
 		chi().writeToNBT(writeTo);
 
-		AvatarUtils.writeList(tickHandlers,
+		AvatarUtils.writeList(getAllTickHandlers(),
 				(nbt, handler) -> nbt.setInteger("Id", handler.id()),
 				writeTo,
 				"TickHandlers");
@@ -582,13 +744,11 @@ public class BendingData {
 
 		chi().readFromNBT(readFrom);
 
-		AvatarUtils.readList(tickHandlers, //
+		List<TickHandler> readTickHandlers = new ArrayList<>();
+		AvatarUtils.readList(readTickHandlers, //
 				nbt -> TickHandler.fromId(nbt.getInteger("Id")), //
 				readFrom, "TickHandlers");
-
-		for (TickHandler tickHandler : tickHandlers) {
-			tickHandlerDuration.putIfAbsent(tickHandler, 0);
-		}
+		setAllTickHandlers(readTickHandlers);
 
 		getPerformance().setScore(readFrom.getDouble("BattlePerformance"));
 
@@ -605,6 +765,7 @@ public class BendingData {
 	}
 
 	public void saveAll() {
+		fullAbilityDataSync = true;
 		saveAll.run();
 	}
 
@@ -43,7 +43,10 @@ public class CachedEntity<T extends Entity> {
 		this.entityId = id;
 	}
 
-	private static UUID getId(Entity entity) {
+	/**
+	 * Gets the id which is used to store the entity. For players, this is their account id.
+	 */
+	public static UUID getId(Entity entity) {
 		return entity instanceof EntityPlayer ? AccountUUIDs.getId(entity.getName()).getUUID()
 				: entity.getUniqueID();
 	}
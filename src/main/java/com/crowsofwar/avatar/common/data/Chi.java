@@ -75,6 +75,11 @@ public class Chi {
 	 * negative amounts (subtraction).
 	 */
 	public void changeTotalChi(float amount) {
+		addTotal(amount);
+		save();
+	}
+
+	private void addTotal(float amount) {
 		float prev = total;
 		if (total + amount > max) {
 			total = max;
@@ -84,7 +89,6 @@ public class Chi {
 			total += amount;
 		}
 		availableMark += total - prev;
-		save();
 	}
 
 	/**
@@ -125,9 +129,13 @@ public class Chi {
 	 * @see #getAvailableChi()
 	 */
 	public void setAvailableChi(float available) {
+		moveAvailableMark(available);
+		save();
+	}
+
+	private void moveAvailableMark(float available) {
 		if (available > total) available = total;
 		this.availableMark = total - available;
-		save();
 	}
 
 	/**
@@ -145,6 +153,18 @@ public class Chi {
 		return max - availableMark;
 	}
 
+	/**
+	 * Applies natural regeneration: adds the given amount of total chi, then the given amount of
+	 * available chi. Unlike the other setters, this doesn't sync or save the data. Regeneration
+	 * is predicted by the client from the same rates, and the server sends a correction every
+	 * {@link Bender#CHI_SYNC_INTERVAL} ticks.
+	 */
+	public void regenerate(float totalAmount, float availableAmount) {
+		addTotal(totalAmount);
+		moveAvailableMark(getAvailableChi() + availableAmount);
+		checkConsistency();
+	}
+
 	/**
 	 * <strong>Only designed for use by internal data classes.</strong> A {@link Bender} object
 	 * is really the one responsible for consuming chi; use Bender{@link #consumeChi(float)}
@@ -39,7 +39,7 @@ public enum DataCategory {
 	//@formatter:off
 	BENDING_LIST(	BendingData::getAllBendingIds,		BendingData::setAllBendingIds,		DataTransmitters.BENDING_LIST),
 	STATUS_CONTROLS(BendingData::getAllStatusControls,	BendingData::setAllStatusControls,	DataTransmitters.STATUS_CONTROLS),
-	ABILITY_DATA(	BendingData::getAbilityDataMap,		BendingData::setAbilityDataMap,		DataTransmitters.ABILITY_DATA),
+	ABILITY_DATA(	BendingData::getAbilityDataUpdate,	BendingData::applyAbilityDataUpdate,DataTransmitters.ABILITY_DATA),
 	CHI(			BendingData::chi,					BendingData::setChi,				DataTransmitters.CHI),
 	MISC_DATA(		BendingData::getMiscData,			BendingData::setMiscData,			DataTransmitters.MISC_DATA),
 	TICK_HANDLERS(	BendingData::getAllTickHandlers,	BendingData::setAllTickHandlers,	DataTransmitters.TICK_HANDLERS),
@@ -0,0 +1,92 @@
+/* 
+  This file is part of AvatarMod.
+    
+  AvatarMod is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+  
+  AvatarMod is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+  
+  You should have received a copy of the GNU General Public License
+  along with AvatarMod. If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package com.crowsofwar.avatar.common.data;
+
+import com.crowsofwar.avatar.AvatarInfo;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Coalesces server-side player data updates. Instead of sending a packet and marking the world
+ * data dirty every time a value in {@link BendingData} changes, the player data is queued here,
+ * and at the end of the server tick each queued player sends one packet containing every
+ * {@link DataCategory} that changed during that tick.
+ * <p>
+ * Only used on the server thread.
+ *
+ * @author CrowsOfWar
+ */
+@Mod.EventBusSubscriber(modid = AvatarInfo.MOD_ID)
+public class PlayerDataSyncHandler {
+
+	private static Set<AvatarPlayerData> pending = new LinkedHashSet<>();
+
+	private PlayerDataSyncHandler() {
+	}
+
+	/**
+	 * Queues the player data to be synced and saved at the end of this tick. Queueing the same
+	 * player data multiple times in one tick has no additional cost.
+	 */
+	public static void queueSync(AvatarPlayerData data) {
+		pending.add(data);
+	}
+
+	/**
+	 * Immediately syncs and saves all queued player data. Player data which is queued again while
+	 * flushing (e.g. max chi changing while saving) is left for the next flush.
+	 */
+	public static void flush() {
+		if (pending.isEmpty()) {
+			return;
+		}
+
+		Set<AvatarPlayerData> flushing = pending;
+		pending = new LinkedHashSet<>();
+		for (AvatarPlayerData data : flushing) {
+			data.syncChanges();
+		}
+	}
+
+	@SubscribeEvent
+	public static void onTick(TickEvent.ServerTickEvent e) {
+		if (e.phase == Phase.END) {
+			flush();
+		}
+	}
+
+	/**
+	 * A player who starts tracking another player has none of their ability data, so later
+	 * deltas would have nothing to apply to. Sends all of the tracked player's data, including a
+	 * full ability data snapshot.
+	 */
+	@SubscribeEvent
+	public static void onStartTracking(PlayerEvent.StartTracking e) {
+		if (e.getTarget() instanceof EntityPlayer && !e.getTarget().world.isRemote) {
+			BendingData.get((EntityPlayer) e.getTarget()).saveAll();
+		}
+	}
+
+}
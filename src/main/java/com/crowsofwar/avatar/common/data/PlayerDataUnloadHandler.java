@@ -0,0 +1,46 @@
+/* 
+  This file is part of AvatarMod.
+    
+  AvatarMod is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+  
+  AvatarMod is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+  
+  You should have received a copy of the GNU General Public License
+  along with AvatarMod. If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.crowsofwar.avatar.common.data;
+
+import com.crowsofwar.avatar.AvatarInfo;
+import com.crowsofwar.gorecore.util.AccountUUIDs;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent;
+
+/**
+ * Unloads a player's data when they log out, if player data is saved to separate files. It is
+ * loaded again from the player's file when they log back in.
+ *
+ * @author CrowsOfWar
+ */
+@Mod.EventBusSubscriber(modid = AvatarInfo.MOD_ID)
+public class PlayerDataUnloadHandler {
+
+	private PlayerDataUnloadHandler() {
+	}
+
+	@SubscribeEvent
+	public static void onLogout(PlayerEvent.PlayerLoggedOutEvent e) {
+		EntityPlayer player = e.player;
+		if (!player.world.isRemote) {
+			AvatarWorldData.getDataFromWorld(player.world).unloadPlayerData(AccountUUIDs.getId(player.getName()).getUUID());
+		}
+	}
+
+}
@@ -18,31 +18,22 @@ package com.crowsofwar.avatar.common.data;
 
 import net.minecraft.util.math.BlockPos;
 
+/**
+ * A block which will be destroyed after a delay. The delay is tracked by the timer wheel in
+ * {@link AvatarWorldData}.
+ */
 public class ScheduledDestroyBlock {
 
 	final BlockPos pos;
 	final boolean drop;
 	final int fortune;
-	private final AvatarWorldData data;
-	int ticks;
 
-	public ScheduledDestroyBlock(AvatarWorldData avatarWorldData, BlockPos pos, int ticks, boolean drop, int fortune) {
-		data = avatarWorldData;
+	public ScheduledDestroyBlock(BlockPos pos, boolean drop, int fortune) {
 		this.pos = pos;
-		this.ticks = ticks;
 		this.fortune = fortune;
 		this.drop = drop;
 	}
 
-	public int getTicks() {
-		return ticks;
-	}
-
-	public void decrementTicks() {
-		this.ticks--;
-		data.setDirty(true);
-	}
-
 	public BlockPos getPos() {
 		return pos;
 	}
@@ -55,4 +46,4 @@ public class ScheduledDestroyBlock {
 		return fortune;
 	}
 
-}
\ No newline at end of file
+}
@@ -19,24 +19,19 @@ package com.crowsofwar.avatar.common.data;
 import net.minecraft.util.math.BlockPos;
 
 /**
+ * A water block which will be removed after a delay. The delay is tracked by the timer wheel in
+ * {@link AvatarWorldData}.
+ *
  * @author CrowsOfWar
  */
 public class TemporaryWaterLocation {
 
-	private final AvatarWorldData data;
 	private final BlockPos pos;
 	private final int dimension;
-	private int ticks;
 
-	public TemporaryWaterLocation(AvatarWorldData data, BlockPos pos, int dimension, int ticks) {
-		this.data = data;
+	public TemporaryWaterLocation(BlockPos pos, int dimension) {
 		this.pos = pos;
 		this.dimension = dimension;
-		this.ticks = ticks;
-	}
-
-	public AvatarWorldData getData() {
-		return data;
 	}
 
 	public BlockPos getPos() {
@@ -47,13 +42,4 @@ public class TemporaryWaterLocation {
 		return dimension;
 	}
 
-	public int getTicks() {
-		return ticks;
-	}
-
-	public void decrementTicks() {
-		this.ticks--;
-		data.setDirty(true);
-	}
-
 }
@@ -28,6 +28,7 @@ import com.crowsofwar.avatar.common.bending.water.WaterSkateHandler;
 import com.crowsofwar.avatar.common.bending.water.WaterSmashHandler;
 import com.crowsofwar.avatar.common.data.ctx.BendingContext;
 import com.crowsofwar.avatar.common.entity.mob.BisonSummonHandler;
+import com.crowsofwar.gorecore.util.GoreCoreByteBufUtil;
 import io.netty.buffer.ByteBuf;
 
 import java.util.HashMap;
@@ -71,7 +72,7 @@ public abstract class TickHandler {
 	}
 
 	public static TickHandler fromBytes(ByteBuf buf) {
-		return fromId(buf.readInt());
+		return fromId(GoreCoreByteBufUtil.readVarInt(buf));
 	}
 
 	/**
@@ -84,7 +85,7 @@ public abstract class TickHandler {
 	}
 
 	public void toBytes(ByteBuf buf) {
-		buf.writeInt(id);
+		GoreCoreByteBufUtil.writeVarInt(buf, id);
 	}
 
 }
@@ -0,0 +1,205 @@
+/* 
+  This file is part of AvatarMod.
+    
+  AvatarMod is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+  
+  AvatarMod is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+  
+  You should have received a copy of the GNU General Public License
+  along with AvatarMod. If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package com.crowsofwar.avatar.common.entity;
+
+/**
+ * Stores the state of an arc's control points in packed arrays and moves them. Positions and
+ * velocities are stored as consecutive x, y, z values, so the control points can be updated in
+ * place without allocating vectors. Doesn't depend on Minecraft classes.
+ * <p>
+ * {@link ControlPoint Control points} are views of one index in the solver.
+ *
+ * @author CrowsOfWar
+ */
+public class ArcSolver {
+
+	private final int points;
+	private final double[] positions;
+	private final double[] lastPositions;
+	/**
+	 * Velocities in m/s
+	 */
+	private final double[] velocities;
+	private final float[] sizes;
+	/**
+	 * Incremented whenever any state changes, so views can tell when cached values are outdated
+	 */
+	private int modCount;
+
+	public ArcSolver(int points) {
+		this.points = points;
+		this.positions = new double[points * 3];
+		this.lastPositions = new double[points * 3];
+		this.velocities = new double[points * 3];
+		this.sizes = new float[points];
+	}
+
+	public int getPointCount() {
+		return points;
+	}
+
+	public int getModCount() {
+		return modCount;
+	}
+
+	public double x(int index) {
+		return positions[index * 3];
+	}
+
+	public double y(int index) {
+		return positions[index * 3 + 1];
+	}
+
+	public double z(int index) {
+		return positions[index * 3 + 2];
+	}
+
+	public double lastX(int index) {
+		return lastPositions[index * 3];
+	}
+
+	public double lastY(int index) {
+		return lastPositions[index * 3 + 1];
+	}
+
+	public double lastZ(int index) {
+		return lastPositions[index * 3 + 2];
+	}
+
+	public double velocityX(int index) {
+		return velocities[index * 3];
+	}
+
+	public double velocityY(int index) {
+		return velocities[index * 3 + 1];
+	}
+
+	public double velocityZ(int index) {
+		return velocities[index * 3 + 2];
+	}
+
+	public float size(int index) {
+		return sizes[index];
+	}
+
+	public void setPosition(int index, double x, double y, double z) {
+		set(positions, index, x, y, z);
+	}
+
+	/**
+	 * Move the control point by the designated offset, not checking for collisions.
+	 */
+	public void move(int index, double x, double y, double z) {
+		add(positions, index, x, y, z);
+	}
+
+	public void setVelocity(int index, double x, double y, double z) {
+		set(velocities, index, x, y, z);
+	}
+
+	public void addVelocity(int index, double x, double y, double z) {
+		add(velocities, index, x, y, z);
+	}
+
+	public void setSize(int index, float size) {
+		sizes[index] = size;
+		modCount++;
+	}
+
+	/**
+	 * Copies the state of a control point from another solver.
+	 */
+	public void copyPoint(int index, ArcSolver from, int fromIndex) {
+		System.arraycopy(from.positions, fromIndex * 3, positions, index * 3, 3);
+		System.arraycopy(from.lastPositions, fromIndex * 3, lastPositions, index * 3, 3);
+		System.arraycopy(from.velocities, fromIndex * 3, velocities, index * 3, 3);
+		sizes[index] = from.sizes[fromIndex];
+		modCount++;
+	}
+
+	/**
+	 * Moves each control point towards the control point in front of it (its leader), starting
+	 * from the second control point. Control points beyond the max distance are pulled towards
+	 * their leader; beyond the teleport distance, both are placed slightly closer than the
+	 * teleport distance and the follower is stopped.
+	 */
+	public void followLeaders(double maxDistanceSq, double teleportDistanceSq) {
+
+		double idealDist = Math.sqrt(teleportDistanceSq);
+		if (idealDist > 1) idealDist -= 1; // Make sure there is some room
+
+		for (int i = 1; i < points; i++) {
+
+			int leader = (i - 1) * 3;
+			int follower = i * 3;
+
+			// Direction from leader to follower
+			double dx = positions[follower] - positions[leader];
+			double dy = positions[follower + 1] - positions[leader + 1];
+			double dz = positions[follower + 2] - positions[leader + 2];
+			double sqrDist = dx * dx + dy * dy + dz * dz;
+
+			if (sqrDist > teleportDistanceSq) {
+
+				double scale = idealDist / Math.sqrt(sqrDist);
+				double x = positions[leader] + dx * scale;
+				double y = positions[leader + 1] + dy * scale;
+				double z = positions[leader + 2] + dz * scale;
+
+				set(positions, i, x, y, z);
+				set(positions, i - 1, x, y, z);
+				set(velocities, i, 0, 0, 0);
+
+			} else if (sqrDist > maxDistanceSq) {
+
+				double scale = -3 / Math.sqrt(sqrDist);
+				add(velocities, i, dx * scale, dy * scale, dz * scale);
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * Moves every control point by its velocity over one tick, then slows it down.
+	 */
+	public void integrate() {
+		System.arraycopy(positions, 0, lastPositions, 0, positions.length);
+		for (int i = 0; i < positions.length; i++) {
+			positions[i] += velocities[i] * 0.05;
+			velocities[i] *= 0.4;
+		}
+		modCount++;
+	}
+
+	private void set(double[] array, int index, double x, double y, double z) {
+		array[index * 3] = x;
+		array[index * 3 + 1] = y;
+		array[index * 3 + 2] = z;
+		modCount++;
+	}
+
+	private void add(double[] array, int index, double x, double y, double z) {
+		array[index * 3] += x;
+		array[index * 3 + 1] += y;
+		array[index * 3 + 2] += z;
+		modCount++;
+	}
+
+}
@@ -75,14 +75,12 @@ public abstract class AvatarEntity extends Entity {
 	 * . Returns null if not found.
 	 */
 	public static <T extends AvatarEntity> T lookupEntity(World world, int id) {
-		List<AvatarEntity> entities = world.getEntities(AvatarEntity.class, ent -> ent.getAvId() == id);
-		return entities.isEmpty() ? null : (T) entities.get(0);
+		return (T) AvatarEntityRegistry.get(world).getByAvId(id);
 	}
 
 	public static <T extends AvatarEntity> T lookupEntity(World world, Class<T> cls, Predicate<T> predicate) {
-		List<Entity> entities = world.loadedEntityList;
-		for (Entity ent : entities) {
-			if (ent.getClass().isAssignableFrom(cls) && predicate.test((T) ent)) {
+		for (AvatarEntity ent : AvatarEntityRegistry.get(world).getAll()) {
+			if (cls.isInstance(ent) && predicate.test((T) ent)) {
 				return (T) ent;
 			}
 		}
@@ -94,16 +92,25 @@ public abstract class AvatarEntity extends Entity {
 	 * Find the entity controlled by the given player.
 	 */
 	public static <T extends AvatarEntity> T lookupControlledEntity(World world, Class<T> cls, EntityLivingBase controller) {
-		List<T> list = world.getEntities(cls, ent -> ent.getController() == controller);
-		return list.isEmpty() ? null : list.get(0);
+		// Entities are only ever controlled by their owner
+		for (AvatarEntity ent : AvatarEntityRegistry.get(world).getOwnedBy(controller)) {
+			if (cls.isInstance(ent) && ent.getController() == controller) {
+				return (T) ent;
+			}
+		}
+		return null;
 	}
 
 	/**
 	 * Find the entity owned by the given entity.
 	 */
 	public static <T extends AvatarEntity> T lookupOwnedEntity(World world, Class<T> cls, EntityLivingBase owner) {
-		List<T> list = world.getEntities(cls, ent -> ent.getOwner() == owner);
-		return list.isEmpty() ? null : list.get(0);
+		for (AvatarEntity ent : AvatarEntityRegistry.get(world).getOwnedBy(owner)) {
+			if (cls.isInstance(ent) && ent.getOwner() == owner) {
+				return (T) ent;
+			}
+		}
+		return null;
 	}
 
 	@Override
@@ -137,6 +144,15 @@ public abstract class AvatarEntity extends Entity {
 		return ownerRef.getEntityId() != null;
 	}
 
+	/**
+	 * Get the synced id of the owner, or null if there is no owner. For players, this is their
+	 * account id.
+	 */
+	@Nullable
+	public UUID getOwnerId() {
+		return dataManager.get(SYNC_OWNER).orNull();
+	}
+
 	/**
 	 * Get whoever is currently controlling the movement of this entity, or null
 	 * if nobody is controlling it.
@@ -209,6 +225,14 @@ public abstract class AvatarEntity extends Entity {
 		this.ability = ability;
 	}
 
+	@Override
+	public void notifyDataManagerChange(DataParameter<?> key) {
+		super.notifyDataManagerChange(key);
+		if (SYNC_ID.equals(key) || SYNC_OWNER.equals(key)) {
+			AvatarEntityRegistry.onKeysChanged(this);
+		}
+	}
+
 	@Override
 	protected void readEntityFromNBT(NBTTagCompound nbt) {
 		setAvId(nbt.getInteger("AvId"));
@@ -233,6 +257,7 @@ public abstract class AvatarEntity extends Entity {
 
 	@Override
 	public void onUpdate() {
+		EntityCollisionGrid.onEntityUpdate(this);
 		super.onUpdate();
 		collideWithNearbyEntities();
 		if (putsOutFires && ticksExisted % 2 == 0) {
@@ -268,7 +293,7 @@ public abstract class AvatarEntity extends Entity {
 
 	// copied from EntityLivingBase -- mostly
 	protected void collideWithNearbyEntities() {
-		List<Entity> list = world.getEntitiesWithinAABBExcludingEntity(this, getEntityBoundingBox());
+		List<Entity> list = EntityCollisionGrid.getEntitiesWithinAABBExcludingEntity(world, this, getEntityBoundingBox());
 
 		if (!list.isEmpty()) {
 			int i = world.getGameRules().getInt("maxEntityCramming");
@@ -0,0 +1,149 @@
+/* 
+  This file is part of AvatarMod.
+    
+  AvatarMod is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+  
+  AvatarMod is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+  
+  You should have received a copy of the GNU General Public License
+  along with AvatarMod. If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package com.crowsofwar.avatar.common.entity;
+
+import com.crowsofwar.avatar.common.data.CachedEntity;
+import com.crowsofwar.avatar.common.util.PerWorld;
+import com.crowsofwar.avatar.common.util.WorldEntityListener;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.world.World;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Keeps track of every loaded {@link AvatarEntity} in a world, indexed by {@link
+ * AvatarEntity#getAvId() avatar id} and owner. Used by the AvatarEntity lookup methods so they
+ * don't need to scan every loaded entity in the world.
+ * <p>
+ * Kept up to date by listening to entities being added to and removed from the world, and by
+ * the AvatarEntity itself when its id or owner is changed.
+ *
+ * @author CrowsOfWar
+ */
+public class AvatarEntityRegistry extends WorldEntityListener {
+
+	private static final PerWorld<AvatarEntityRegistry> registries = new PerWorld<>(world -> {
+		AvatarEntityRegistry registry = new AvatarEntityRegistry();
+		registry.listenTo(world);
+		return registry;
+	});
+
+	private final Set<AvatarEntity> entities;
+	private final Map<Integer, AvatarEntity> byAvId;
+	private final Map<UUID, Set<AvatarEntity>> byOwner;
+
+	/**
+	 * Keys each entity is currently indexed under, so they can be removed when changed
+	 */
+	private final Map<AvatarEntity, Integer> indexedAvIds;
+	private final Map<AvatarEntity, UUID> indexedOwners;
+
+	private AvatarEntityRegistry() {
+		entities = new LinkedHashSet<>();
+		byAvId = new HashMap<>();
+		byOwner = new HashMap<>();
+		indexedAvIds = new IdentityHashMap<>();
+		indexedOwners = new IdentityHashMap<>();
+	}
+
+	/**
+	 * Gets the registry for the world, creating it (and indexing the currently loaded entities) if
+	 * necessary.
+	 */
+	public static AvatarEntityRegistry get(World world) {
+		return registries.get(world);
+	}
+
+	/**
+	 * Called by AvatarEntity when its id or owner changed, to update the indices.
+	 */
+	static void onKeysChanged(AvatarEntity entity) {
+		AvatarEntityRegistry registry = registries.getIfPresent(entity.world);
+		if (registry != null && registry.entities.contains(entity)) {
+			registry.unindex(entity);
+			registry.index(entity);
+		}
+	}
+
+	@Nullable
+	public AvatarEntity getByAvId(int avId) {
+		return byAvId.get(avId);
+	}
+
+	/**
+	 * Gets all AvatarEntities which are owned by the given entity. Note that an entity's
+	 * {@link AvatarEntity#getController() controller} is always its owner (if it has one), so this
+	 * can be used to find controlled entities too.
+	 */
+	public Collection<AvatarEntity> getOwnedBy(EntityLivingBase owner) {
+		Set<AvatarEntity> owned = byOwner.get(CachedEntity.getId(owner));
+		return owned == null ? Collections.emptySet() : owned;
+	}
+
+	/**
+	 * Gets all loaded AvatarEntities in the world
+	 */
+	public Collection<AvatarEntity> getAll() {
+		return entities;
+	}
+
+	private void index(AvatarEntity entity) {
+		int avId = entity.getAvId();
+		byAvId.put(avId, entity);
+		indexedAvIds.put(entity, avId);
+
+		UUID owner = entity.getOwnerId();
+		if (owner != null) {
+			byOwner.computeIfAbsent(owner, id -> new LinkedHashSet<>()).add(entity);
+			indexedOwners.put(entity, owner);
+		}
+	}
+
+	private void unindex(AvatarEntity entity) {
+		Integer avId = indexedAvIds.remove(entity);
+		if (avId != null && byAvId.get(avId) == entity) {
+			byAvId.remove(avId);
+		}
+
+		UUID owner = indexedOwners.remove(entity);
+		if (owner != null) {
+			Set<AvatarEntity> owned = byOwner.get(owner);
+			owned.remove(entity);
+			if (owned.isEmpty()) {
+				byOwner.remove(owner);
+			}
+		}
+	}
+
+	@Override
+	public void onEntityAdded(Entity entity) {
+		if (entity instanceof AvatarEntity && entities.add((AvatarEntity) entity)) {
+			index((AvatarEntity) entity);
+		}
+	}
+
+	@Override
+	public void onEntityRemoved(Entity entity) {
+		if (entity instanceof AvatarEntity && entities.remove(entity)) {
+			unindex((AvatarEntity) entity);
+		}
+	}
+
+}
@@ -20,7 +20,6 @@ package com.crowsofwar.avatar.common.entity;
 import com.crowsofwar.gorecore.util.Vector;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.util.math.AxisAlignedBB;
-import net.minecraft.world.World;
 
 /**
  * A control point in an arc.
@@ -28,70 +27,108 @@ import net.minecraft.world.World;
  * An arc is made up of multiple control points. This allows the arc to twist
  * and turn. Segments are drawn in-between control points, which creates a
  * blocky arc.
+ * <p>
+ * The control point's state is stored in its arc's {@link ArcSolver}.
  *
  * @author CrowsOfWar
  */
 public class ControlPoint {
 
-	private final World world;
 	protected EntityArc arc;
 	protected EntityLivingBase owner;
-	protected float size;
-	private Vector internalVelocity;
-	private Vector internalPosition;
-	private Vector lastPos;
-	private AxisAlignedBB hitbox;
+	/**
+	 * The solver which stores this control point's state. Before the control point is bound to
+	 * its arc's solver, it uses a solver of its own.
+	 */
+	private ArcSolver solver;
+	private int index;
+	/**
+	 * Immutable vectors returned by {@link #position()}, {@link #velocity()} and
+	 * {@link #lastPosition()}, which are reused until the solver is modified.
+	 */
+	private Vector cachedPosition, cachedVelocity, cachedLastPosition;
+	private int cacheModCount;
 
 	public ControlPoint(EntityArc arc, float size, double x, double y, double z) {
-		internalPosition = new Vector();
-		internalVelocity = new Vector();
 		this.arc = arc;
-		this.world = arc.world;
-		this.size = size;
-
-		double sizeHalfed = size / 2;
-		hitbox = new AxisAlignedBB(position().x() - sizeHalfed, position().y() - sizeHalfed,
-				position().z() - sizeHalfed, position().x() + sizeHalfed, position().y() + sizeHalfed,
-				position().z() + sizeHalfed);
+		this.solver = new ArcSolver(1);
+		this.index = 0;
+		solver.setSize(0, size);
+	}
 
-		lastPos = new Vector();
+	/**
+	 * Makes this control point a view of the given index in the solver, copying over its
+	 * current state.
+	 */
+	void bind(ArcSolver solver, int index) {
+		solver.copyPoint(index, this.solver, this.index);
+		this.solver = solver;
+		this.index = index;
+		cachedPosition = cachedVelocity = cachedLastPosition = null;
+	}
 
+	/**
+	 * Clears the cached vectors if the solver was modified since they were created.
+	 */
+	private void validateCache() {
+		if (cacheModCount != solver.getModCount()) {
+			cachedPosition = cachedVelocity = cachedLastPosition = null;
+			cacheModCount = solver.getModCount();
+		}
 	}
 
 	/**
-	 * Get the velocity of this entity in m/s. Changes to this vector will be
-	 * reflected in the entity's actual velocity.
+	 * Get the velocity of this entity in m/s.
 	 */
 	public Vector velocity() {
-		return internalVelocity;
+		validateCache();
+		if (cachedVelocity == null) {
+			cachedVelocity = new Vector(solver.velocityX(index), solver.velocityY(index), solver.velocityZ(index));
+		}
+		return cachedVelocity;
 	}
 
 	public void setVelocity(Vector velocity) {
-		internalVelocity = velocity;
+		setVelocity(velocity.x(), velocity.y(), velocity.z());
+	}
+
+	public void setVelocity(double x, double y, double z) {
+		solver.setVelocity(index, x, y, z);
+	}
+
+	public void addVelocity(double x, double y, double z) {
+		solver.addVelocity(index, x, y, z);
 	}
 
 	/**
-	 * Get the position of this entity. Changes to this vector will be reflected
-	 * in the entity's actual position.
+	 * Get the position of this entity.
 	 */
 	public Vector position() {
-		return internalPosition;
+		validateCache();
+		if (cachedPosition == null) {
+			cachedPosition = new Vector(x(), y(), z());
+		}
+		return cachedPosition;
 	}
 
 	public Vector lastPosition() {
-		return lastPos;
+		validateCache();
+		if (cachedLastPosition == null) {
+			cachedLastPosition = new Vector(solver.lastX(index), solver.lastY(index), solver.lastZ(index));
+		}
+		return cachedLastPosition;
 	}
 
 	public double x() {
-		return position().x();
+		return solver.x(index);
 	}
 
 	public double y() {
-		return position().y();
+		return solver.y(index);
 	}
 
 	public double z() {
-		return position().z();
+		return solver.z(index);
 	}
 
 	/**
@@ -102,28 +139,31 @@ public class ControlPoint {
 	}
 
 	public AxisAlignedBB getBoundingBox() {
-		return hitbox;
+		double sizeHalfed = size() / 2;
+		return new AxisAlignedBB(x() - sizeHalfed, y() - sizeHalfed, z() - sizeHalfed,
+				x() + sizeHalfed, y() + sizeHalfed, z() + sizeHalfed);
 	}
 
 	public float size() {
-		return size;
+		return solver.size(index);
 	}
 
-	public void onUpdate() {
-
-		double sizeHalfed = size / 2;
-		hitbox = new AxisAlignedBB(position().x() - sizeHalfed, position().y() - sizeHalfed,
-				position().z() - sizeHalfed, position().x() + sizeHalfed, position().y() + sizeHalfed,
-				position().z() + sizeHalfed);
-
-		lastPos = position();
-		move(velocity().times(0.05));
-		setVelocity(velocity().times(0.4));
+	public void setSize(float size) {
+		solver.setSize(index, size);
+	}
 
+	/**
+	 * Called every tick after the arc has moved its control points.
+	 */
+	public void onUpdate() {
 	}
 
 	public void setPosition(Vector pos) {
-		internalPosition = pos;
+		setPosition(pos.x(), pos.y(), pos.z());
+	}
+
+	public void setPosition(double x, double y, double z) {
+		solver.setPosition(index, x, y, z);
 	}
 
 	/**
@@ -132,7 +172,7 @@ public class ControlPoint {
 	 * .
 	 */
 	public void move(double x, double y, double z) {
-		setPosition(position().plus(x, y, z));
+		solver.move(index, x, y, z);
 	}
 
 	/**
@@ -145,7 +185,10 @@ public class ControlPoint {
 	}
 
 	public double getDistance(ControlPoint point) {
-		return position().dist(point.position());
+		double dx = x() - point.x();
+		double dy = y() - point.y();
+		double dz = z() - point.z();
+		return Math.sqrt(dx * dx + dy * dy + dz * dz);
 	}
 
 	/**
@@ -167,7 +167,7 @@ public class EntityAirGust extends EntityArc<EntityAirGust.AirGustControlPoint>
 			super.onUpdate();
 			if (arc.getControlPoint(0) == this) {
 				float expansionRate = 1f / 20;
-				size += expansionRate;
+				setSize(size() + expansionRate);
 			}
 		}
 
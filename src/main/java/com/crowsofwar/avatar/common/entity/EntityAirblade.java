@@ -78,7 +78,7 @@ public class EntityAirblade extends AvatarEntity {
 		}
 
 		if (!isDead && !world.isRemote) {
-			List<Entity> collidedList = world.getEntitiesWithinAABB(Entity.class, getEntityBoundingBox());
+			List<Entity> collidedList = EntityCollisionGrid.getEntitiesWithinAABB(world, Entity.class, getEntityBoundingBox());
 
 			if (!collidedList.isEmpty()) {
 
@@ -121,8 +121,8 @@ public class EntityAirblade extends AvatarEntity {
 
 				AxisAlignedBB aabb = getEntityBoundingBox().grow(10);
 
-				List<EntityLivingBase> nextTargets = world
-								.getEntitiesWithinAABB(EntityLivingBase.class, aabb, entity -> entity != collided && entity != getOwner());
+				List<EntityLivingBase> nextTargets = EntityCollisionGrid
+								.getEntitiesWithinAABB(world, EntityLivingBase.class, aabb, entity -> entity != collided && entity != getOwner());
 
 				nextTargets.sort(AvatarUtils.getSortByDistanceComparator(this::getDistance));
 
@@ -17,7 +17,6 @@
 
 package com.crowsofwar.avatar.common.entity;
 
-import com.crowsofwar.gorecore.util.Vector;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.world.World;
@@ -31,6 +30,7 @@ import java.util.function.Consumer;
 public abstract class EntityArc<T extends ControlPoint> extends AvatarEntity {
 
 	private List<T> points;
+	private ArcSolver solver;
 
 	public EntityArc(World world) {
 		super(world);
@@ -38,8 +38,11 @@ public abstract class EntityArc<T extends ControlPoint> extends AvatarEntity {
 		setSize(size, size);
 
 		this.points = new ArrayList<>();
-		for (int i = 0; i < getAmountOfControlPoints(); i++) {
-			points.add(createControlPoint(size, i));
+		this.solver = new ArcSolver(getAmountOfControlPoints());
+		for (int i = 0; i < solver.getPointCount(); i++) {
+			T point = createControlPoint(size, i);
+			point.bind(solver, i);
+			points.add(point);
 		}
 
 	}
@@ -65,8 +68,8 @@ public abstract class EntityArc<T extends ControlPoint> extends AvatarEntity {
 		super.onUpdate();
 
 		if (this.ticksExisted == 1) {
-			for (T point : points) {
-				point.setPosition(position());
+			for (int i = 0; i < solver.getPointCount(); i++) {
+				solver.setPosition(i, posX, posY, posZ);
 			}
 		}
 
@@ -81,6 +84,7 @@ public abstract class EntityArc<T extends ControlPoint> extends AvatarEntity {
 		updateCpBehavior();
 
 		// Update velocity
+		solver.integrate();
 		for (T cp : points) {
 			cp.onUpdate();
 		}
@@ -89,40 +93,11 @@ public abstract class EntityArc<T extends ControlPoint> extends AvatarEntity {
 
 	protected void updateCpBehavior() {
 
-		getLeader().setPosition(position());
-		getLeader().setVelocity(velocity());
+		getLeader().setPosition(posX, posY, posZ);
+		getLeader().setVelocity(motionX * 20, motionY * 20, motionZ * 20);
 
 		// Move control points to follow leader
-
-		for (int i = 1; i < points.size(); i++) {
-
-			ControlPoint leader = points.get(i - 1);
-			ControlPoint p = points.get(i);
-			Vector leadPos = leader.position();
-			double sqrDist = p.position().sqrDist(leadPos);
-
-			if (sqrDist > getControlPointTeleportDistanceSq()) {
-
-				Vector toFollowerDir = p.position().minus(leader.position()).normalize();
-
-				double idealDist = Math.sqrt(getControlPointTeleportDistanceSq());
-				if (idealDist > 1) idealDist -= 1; // Make sure there is some
-				// room
-
-				Vector revisedOffset = leader.position().plus(toFollowerDir.times(idealDist));
-				p.setPosition(revisedOffset);
-				leader.setPosition(revisedOffset);
-				p.setVelocity(Vector.ZERO);
-
-			} else if (sqrDist > getControlPointMaxDistanceSq()) {
-
-				Vector diff = leader.position().minus(p.position());
-				diff = diff.normalize().times(3);
-				p.setVelocity(p.velocity().plus(diff));
-
-			}
-
-		}
+		solver.followLeaders(getControlPointMaxDistanceSq(), getControlPointTeleportDistanceSq());
 
 	}
 
@@ -142,7 +117,7 @@ public abstract class EntityArc<T extends ControlPoint> extends AvatarEntity {
 		// Set position - called from entity constructor, so points might be
 		// null
 		if (points != null) {
-			getLeader().setPosition(new Vector(x, y, z));
+			getLeader().setPosition(x, y, z);
 		}
 	}
 
@@ -154,6 +129,13 @@ public abstract class EntityArc<T extends ControlPoint> extends AvatarEntity {
 		return points.get(index);
 	}
 
+	/**
+	 * Get the solver which stores the state of the control points.
+	 */
+	public ArcSolver getSolver() {
+		return solver;
+	}
+
 	public T getLeader() {
 		return getControlPoint(0);
 	}
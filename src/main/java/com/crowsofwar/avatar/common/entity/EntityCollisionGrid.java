@@ -0,0 +1,405 @@
+/* 
+  This file is part of AvatarMod.
+    
+  AvatarMod is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+  
+  AvatarMod is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+  
+  You should have received a copy of the GNU General Public License
+  along with AvatarMod. If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package com.crowsofwar.avatar.common.entity;
+
+import com.crowsofwar.avatar.AvatarInfo;
+import com.crowsofwar.avatar.common.util.PerWorld;
+import com.crowsofwar.avatar.common.util.VoxelTraversal;
+import com.crowsofwar.avatar.common.util.WorldEntityListener;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.entity.IProjectile;
+import net.minecraft.util.EntitySelectors;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+import net.minecraftforge.event.entity.living.LivingEvent.LivingUpdateEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A broad-phase spatial hash of the entities in a world which AvatarEntities react to, shared by
+ * everything that needs to find entities colliding with an AvatarEntity, instead of every
+ * projectile and behavior walking the chunk entity lists on its own. Only living entities,
+ * AvatarEntities and projectiles are kept in the grid, so other entities like items and minecarts
+ * are never found, even by queries for <code>Entity.class</code>.
+ * <p>
+ * Entities are added and removed as they join and leave the world. Like the chunk entity lists,
+ * an entity is moved to its new column after it updates; entities which updated are moved when
+ * the next query is made, projectiles are moved by every query since their updates can't be
+ * seen, and every entity is checked once per tick. Queries look {@link
+ * #MOVEMENT_MARGIN} further, the same as {@link World#getEntitiesWithinAABB(Class,
+ * AxisAlignedBB)}, and then test the entities' current bounding boxes.
+ *
+ * @author CrowsOfWar
+ */
+@Mod.EventBusSubscriber(modid = AvatarInfo.MOD_ID)
+public class EntityCollisionGrid extends WorldEntityListener {
+
+	/**
+	 * Width of a column in blocks, as a bit shift (4 blocks)
+	 */
+	private static final int CELL_SHIFT = 2;
+	/**
+	 * How far an entity can be moved by something other than its own update and still be found
+	 * by queries
+	 */
+	private static final double MOVEMENT_MARGIN = 2;
+	/**
+	 * Entities wider than this are not hashed, but checked by every query
+	 */
+	private static final double MAX_HASHED_WIDTH = 4;
+	/**
+	 * Cell key of entities which are too wide to be hashed
+	 */
+	private static final long OVERSIZED = Long.MIN_VALUE;
+
+	private static final PerWorld<EntityCollisionGrid> grids = new PerWorld<>(world -> {
+		EntityCollisionGrid grid = new EntityCollisionGrid(world);
+		grid.listenTo(world);
+		return grid;
+	});
+
+	private final World world;
+	private final Map<Long, List<Entity>> cells;
+	private final List<Entity> oversized;
+	/**
+	 * The cell key which each entity is currently in
+	 */
+	private final Map<Entity, Long> entityCells;
+	/**
+	 * Entities which have updated since the last query this tick, so may have moved
+	 */
+	private final List<Entity> updated;
+	/**
+	 * Projectiles, which have no update callback, so are moved by every query
+	 */
+	private final List<Entity> projectiles;
+	/**
+	 * The entity which most recently started updating; it may still be moving
+	 */
+	private Entity updating;
+	private long checkedTime;
+
+	private EntityCollisionGrid(World world) {
+		this.world = world;
+		this.cells = new HashMap<>();
+		this.oversized = new ArrayList<>();
+		this.entityCells = new IdentityHashMap<>();
+		this.updated = new ArrayList<>();
+		this.projectiles = new ArrayList<>();
+		this.checkedTime = Long.MIN_VALUE;
+	}
+
+	/**
+	 * Gets all entities in the grid except <code>exclude</code> whose bounding box intersects the
+	 * given box, including parts of multipart entities. Like
+	 * {@link World#getEntitiesWithinAABBExcludingEntity(Entity, AxisAlignedBB)}, but only finds the
+	 * entities {@link #isHashed(Entity) kept in the grid}.
+	 */
+	public static List<Entity> getEntitiesWithinAABBExcludingEntity(World world, @Nullable Entity exclude,
+																	AxisAlignedBB aabb) {
+		return grids.get(world).queryExcluding(exclude, aabb);
+	}
+
+	/**
+	 * Gets all entities in the grid of the given class whose bounding box intersects the given
+	 * box. Like {@link World#getEntitiesWithinAABB(Class, AxisAlignedBB)}, but only finds the
+	 * entities {@link #isHashed(Entity) kept in the grid}.
+	 */
+	public static <T extends Entity> List<T> getEntitiesWithinAABB(World world, Class<T> cls, AxisAlignedBB aabb) {
+		return getEntitiesWithinAABB(world, cls, aabb, null);
+	}
+
+	/**
+	 * Gets all entities in the grid of the given class whose bounding box intersects the given
+	 * box, and which match the filter. Like
+	 * {@link World#getEntitiesWithinAABB(Class, AxisAlignedBB, com.google.common.base.Predicate)},
+	 * but only finds the entities {@link #isHashed(Entity) kept in the grid}.
+	 */
+	public static <T extends Entity> List<T> getEntitiesWithinAABB(World world, Class<T> cls, AxisAlignedBB aabb,
+																   @Nullable Predicate<? super T> filter) {
+		return grids.get(world).query(cls, aabb, filter);
+	}
+
+	/**
+	 * Gets all entities in the grid of the given class whose bounding box intersects the line
+	 * segment from <code>start</code> to <code>end</code>, and which match the filter. Only the
+	 * columns along the segment are checked, rather than every column in the box around the
+	 * segment.
+	 */
+	public static <T extends Entity> List<T> getEntitiesOnSegment(World world, Class<T> cls, Vec3d start, Vec3d end,
+																  @Nullable Predicate<? super T> filter) {
+		return grids.get(world).querySegment(cls, start, end, filter);
+	}
+
+	/**
+	 * Called when the entity starts updating, so it is moved to its new column afterwards.
+	 * Entities only need to be remembered once a query was made this tick, since the first query
+	 * of every tick checks all entities anyway.
+	 */
+	public static void onEntityUpdate(Entity entity) {
+		EntityCollisionGrid grid = grids.getIfPresent(entity.world);
+		if (grid != null && grid.entityCells.containsKey(entity)) {
+			if (grid.updating != null && grid.updating != entity
+					&& grid.checkedTime == grid.world.getTotalWorldTime()) {
+				grid.updated.add(grid.updating);
+			}
+			grid.updating = entity;
+		}
+	}
+
+	@SubscribeEvent
+	public static void onLivingUpdate(LivingUpdateEvent e) {
+		onEntityUpdate(e.getEntityLiving());
+	}
+
+	/**
+	 * Whether the entity is kept in the grid; these are the entities which AvatarEntities react to
+	 */
+	private static boolean isHashed(Entity entity) {
+		return entity instanceof EntityLivingBase || entity instanceof AvatarEntity || isProjectile(entity);
+	}
+
+	private static boolean isProjectile(Entity entity) {
+		return entity instanceof IProjectile || entity instanceof net.minecraft.entity.projectile.EntityFireball;
+	}
+
+	private static long key(int cellX, int cellZ) {
+		return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+	}
+
+	private static long cellOf(Entity entity) {
+		if (entity.width > MAX_HASHED_WIDTH) {
+			return OVERSIZED;
+		}
+		int cellX = (int) Math.floor(entity.posX) >> CELL_SHIFT;
+		int cellZ = (int) Math.floor(entity.posZ) >> CELL_SHIFT;
+		return key(cellX, cellZ);
+	}
+
+	@Override
+	public void onEntityAdded(Entity entity) {
+		if (isHashed(entity) && !entityCells.containsKey(entity)) {
+			long cell = cellOf(entity);
+			entityCells.put(entity, cell);
+			getCell(cell).add(entity);
+			if (isProjectile(entity)) {
+				projectiles.add(entity);
+			}
+		}
+	}
+
+	@Override
+	public void onEntityRemoved(Entity entity) {
+		Long cell = entityCells.remove(entity);
+		if (cell != null) {
+			removeFromCell(entity, cell);
+			if (isProjectile(entity)) {
+				projectiles.remove(entity);
+			}
+		}
+		if (updating == entity) {
+			updating = null;
+		}
+	}
+
+	private List<Entity> getCell(long cell) {
+		return cell == OVERSIZED ? oversized : cells.computeIfAbsent(cell, k -> new ArrayList<>());
+	}
+
+	private void removeFromCell(Entity entity, long cell) {
+		if (cell == OVERSIZED) {
+			oversized.remove(entity);
+		} else {
+			List<Entity> entities = cells.get(cell);
+			entities.remove(entity);
+			if (entities.isEmpty()) {
+				cells.remove(cell);
+			}
+		}
+	}
+
+	/**
+	 * Moves the entity to the column it is in now, if it has changed.
+	 */
+	private void move(Entity entity) {
+		Long previous = entityCells.get(entity);
+		if (previous != null) {
+			long cell = cellOf(entity);
+			if (cell != previous) {
+				moveBetweenCells(entity, previous, cell);
+				entityCells.put(entity, cell);
+			}
+		}
+	}
+
+	private void moveBetweenCells(Entity entity, long previous, long cell) {
+		removeFromCell(entity, previous);
+		getCell(cell).add(entity);
+	}
+
+	/**
+	 * Moves entities which may have moved since the last query to their current columns. Once
+	 * per tick, all entities are checked, since they can also be moved between ticks.
+	 */
+	private void moveEntities() {
+		long time = world.getTotalWorldTime();
+		if (time != checkedTime) {
+			checkedTime = time;
+			for (Map.Entry<Entity, Long> entry : entityCells.entrySet()) {
+				long cell = cellOf(entry.getKey());
+				if (cell != entry.getValue()) {
+					moveBetweenCells(entry.getKey(), entry.getValue(), cell);
+					entry.setValue(cell);
+				}
+			}
+		} else {
+			for (Entity entity : updated) {
+				move(entity);
+			}
+			for (Entity entity : projectiles) {
+				move(entity);
+			}
+		}
+		updated.clear();
+		if (updating != null) {
+			move(updating);
+		}
+	}
+
+	private List<Entity> queryExcluding(@Nullable Entity exclude, AxisAlignedBB aabb) {
+		moveEntities();
+
+		List<Entity> result = new ArrayList<>();
+		forEachCandidate(aabb, candidates -> addMatchingWithParts(candidates, result, exclude, aabb));
+		return result;
+	}
+
+	private <T extends Entity> List<T> query(Class<T> cls, AxisAlignedBB aabb, @Nullable Predicate<? super T> filter) {
+		moveEntities();
+
+		List<T> result = new ArrayList<>();
+		forEachCandidate(aabb, candidates -> addMatching(candidates, result, cls, aabb, filter));
+		return result;
+	}
+
+	private void forEachCandidate(AxisAlignedBB aabb, Consumer<List<Entity>> action) {
+		// An entity's position is the center of its bounding box on the X/Z axes
+		double grow = MOVEMENT_MARGIN + MAX_HASHED_WIDTH / 2;
+		int minX = (int) Math.floor(aabb.minX - grow) >> CELL_SHIFT;
+		int maxX = (int) Math.floor(aabb.maxX + grow) >> CELL_SHIFT;
+		int minZ = (int) Math.floor(aabb.minZ - grow) >> CELL_SHIFT;
+		int maxZ = (int) Math.floor(aabb.maxZ + grow) >> CELL_SHIFT;
+
+		for (int cellX = minX; cellX <= maxX; cellX++) {
+			for (int cellZ = minZ; cellZ <= maxZ; cellZ++) {
+				List<Entity> cell = cells.get(key(cellX, cellZ));
+				if (cell != null) {
+					action.accept(cell);
+				}
+			}
+		}
+		action.accept(oversized);
+	}
+
+	private <T extends Entity> List<T> querySegment(Class<T> cls, Vec3d start, Vec3d end,
+													@Nullable Predicate<? super T> filter) {
+		moveEntities();
+
+		List<T> result = new ArrayList<>();
+		Set<Long> checked = new HashSet<>();
+
+		// Walk the columns along the segment, seen from above. An entity's position can be at
+		// most MOVEMENT_MARGIN + MAX_HASHED_WIDTH / 2 blocks from the segment, which is no more
+		// than a column, so the neighboring columns are checked too.
+		double scale = 1.0 / (1 << CELL_SHIFT);
+		VoxelTraversal.traverse(start.x * scale, 0, start.z * scale, end.x * scale, 0, end.z * scale,
+				(cell, side, distance) -> {
+					for (int offsetX = -1; offsetX <= 1; offsetX++) {
+						for (int offsetZ = -1; offsetZ <= 1; offsetZ++) {
+							long key = key(cell.getX() + offsetX, cell.getZ() + offsetZ);
+							List<Entity> entities = cells.get(key);
+							if (entities != null && checked.add(key)) {
+								addIntercepting(entities, result, cls, start, end, filter);
+							}
+						}
+					}
+					return false;
+				});
+		addIntercepting(oversized, result, cls, start, end, filter);
+		return result;
+	}
+
+	private static <T extends Entity> void addIntercepting(List<Entity> candidates, List<T> result, Class<T> cls,
+														   Vec3d start, Vec3d end, @Nullable Predicate<? super T> filter) {
+		for (Entity entity : candidates) {
+			if (cls.isInstance(entity) && EntitySelectors.NOT_SPECTATING.apply(entity)
+					&& entity.getEntityBoundingBox().calculateIntercept(start, end) != null) {
+				T t = cls.cast(entity);
+				if (filter == null || filter.test(t)) {
+					result.add(t);
+				}
+			}
+		}
+	}
+
+	private static <T extends Entity> void addMatching(List<Entity> candidates, List<T> result, Class<T> cls,
+													   AxisAlignedBB aabb, @Nullable Predicate<? super T> filter) {
+		for (Entity entity : candidates) {
+			if (cls.isInstance(entity) && EntitySelectors.NOT_SPECTATING.apply(entity)
+					&& entity.getEntityBoundingBox().intersects(aabb)) {
+				T t = cls.cast(entity);
+				if (filter == null || filter.test(t)) {
+					result.add(t);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the matching entities and their parts, in the same way as
+	 * {@link net.minecraft.world.chunk.Chunk#getEntitiesWithinAABBForEntity(Entity, AxisAlignedBB,
+	 * List, com.google.common.base.Predicate)}.
+	 */
+	private static void addMatchingWithParts(List<Entity> candidates, List<Entity> result, @Nullable Entity exclude,
+											 AxisAlignedBB aabb) {
+		for (Entity entity : candidates) {
+			if (entity != exclude && entity.getEntityBoundingBox().intersects(aabb)) {
+				if (EntitySelectors.NOT_SPECTATING.apply(entity)) {
+					result.add(entity);
+				}
+				Entity[] parts = entity.getParts();
+				if (parts != null) {
+					for (Entity part : parts) {
+						if (part != exclude && part.getEntityBoundingBox().intersects(aabb)
+								&& EntitySelectors.NOT_SPECTATING.apply(part)) {
+							result.add(part);
+						}
+					}
+				}
+			}
+		}
+	}
+
+}
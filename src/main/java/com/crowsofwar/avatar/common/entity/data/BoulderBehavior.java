@@ -10,6 +10,7 @@ import com.crowsofwar.avatar.common.AvatarDamageSource;
 import com.crowsofwar.avatar.common.bending.BattlePerformanceScore;
 import com.crowsofwar.avatar.common.data.*;
 import com.crowsofwar.avatar.common.entity.EntityBoulder;
+import com.crowsofwar.avatar.common.entity.EntityCollisionGrid;
 import com.crowsofwar.gorecore.util.Vector;
 
 import java.util.List;
@@ -70,7 +71,7 @@ public abstract class BoulderBehavior extends Behavior<EntityBoulder> {
 			entity.addVelocity(0, -1 / 120, 0);
 			World world = entity.world;
 			if (!entity.isDead) {
-				List<Entity> collidedList = world.getEntitiesWithinAABBExcludingEntity(entity, entity.getExpandedHitbox());
+				List<Entity> collidedList = EntityCollisionGrid.getEntitiesWithinAABBExcludingEntity(world, entity, entity.getExpandedHitbox());
 				if (!collidedList.isEmpty()) {
 					Entity collided = collidedList.get(0);
 					if (collided instanceof EntityLivingBase && collided != entity.getOwner()) {
@@ -11,6 +11,7 @@ import com.crowsofwar.avatar.common.bending.BattlePerformanceScore;
 import com.crowsofwar.avatar.common.bending.air.AbilityCloudBurst;
 import com.crowsofwar.avatar.common.data.*;
 import com.crowsofwar.avatar.common.entity.EntityCloudBall;
+import com.crowsofwar.avatar.common.entity.EntityCollisionGrid;
 import com.crowsofwar.gorecore.util.Vector;
 
 import java.util.List;
@@ -74,7 +75,7 @@ public abstract class CloudburstBehavior extends Behavior<EntityCloudBall> {
 
 			World world = entity.world;
 			if (!entity.isDead) {
-				List<Entity> collidedList = world.getEntitiesWithinAABBExcludingEntity(entity, entity.getExpandedHitbox());
+				List<Entity> collidedList = EntityCollisionGrid.getEntitiesWithinAABBExcludingEntity(world, entity, entity.getExpandedHitbox());
 				if (!collidedList.isEmpty()) {
 					Entity collided = collidedList.get(0);
 					if (collided instanceof EntityLivingBase && collided != entity.getOwner()) {
@@ -26,6 +26,7 @@ import com.crowsofwar.avatar.common.data.AbilityData.AbilityTreePath;
 import com.crowsofwar.avatar.common.data.Bender;
 import com.crowsofwar.avatar.common.data.BendingData;
 import com.crowsofwar.avatar.common.entity.EntityFireArc;
+import com.crowsofwar.gorecore.util.MutableVector;
 import com.crowsofwar.gorecore.util.Vector;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.MoverType;
@@ -67,11 +68,12 @@ public abstract class FireArcBehavior extends Behavior<EntityFireArc> {
 				return this;
 			}
 
-			Vector look = Vector.toRectangular(Math.toRadians(owner.rotationYaw),
-					Math.toRadians(owner.rotationPitch));
-			Vector lookPos = Vector.getEyePos(owner).plus(look.times(3));
-			Vector motion = lookPos.minus(new Vector(entity)).times(0.3);
+			MutableVector motion = MutableVector.acquire();
+			motion.setRectangular(Math.toRadians(owner.rotationYaw), Math.toRadians(owner.rotationPitch));
+			motion.multiply(3).add(owner.posX, owner.posY + owner.getEyeHeight(), owner.posZ);
+			motion.subtract(entity.posX, entity.posY, entity.posZ).multiply(0.3);
 			entity.move(MoverType.SELF, motion.x(), motion.y(), motion.z());
+			motion.release();
 
 			return this;
 
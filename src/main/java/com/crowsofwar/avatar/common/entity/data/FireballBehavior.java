@@ -33,6 +33,7 @@ import com.crowsofwar.avatar.common.data.Bender;
 import com.crowsofwar.avatar.common.data.BendingData;
 import com.crowsofwar.avatar.common.entity.AvatarEntity;
 
+import com.crowsofwar.avatar.common.entity.EntityCollisionGrid;
 import com.crowsofwar.avatar.common.entity.EntityFireball;
 import com.crowsofwar.gorecore.util.Vector;
 
@@ -100,7 +101,7 @@ public abstract class FireballBehavior extends Behavior<EntityFireball> {
 
 			World world = entity.world;
 			if (!entity.isDead) {
-				List<Entity> collidedList = world.getEntitiesWithinAABBExcludingEntity(entity, entity.getExpandedHitbox());
+				List<Entity> collidedList = EntityCollisionGrid.getEntitiesWithinAABBExcludingEntity(world, entity, entity.getExpandedHitbox());
 				if (!collidedList.isEmpty()) {
 					Entity collided = collidedList.get(0);
 					if (collided instanceof EntityLivingBase && collided != entity.getOwner()) {
@@ -1,5 +1,6 @@
 package com.crowsofwar.avatar.common.entity.data;
 
+import com.crowsofwar.avatar.common.entity.EntityCollisionGrid;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.init.Blocks;
 import net.minecraft.util.EnumFacing;
@@ -14,38 +15,55 @@ import java.util.function.Consumer;
  * Manages lightning hurting nearby entities when in water, by using a flood-fill algorithm,
  * where some computation is done each tick.
  * <p>
+ * The fill can never leave the cube of side <code>2 * expansion + 1</code> around the initial
+ * position, so positions are stored as indices into that cube: the visited set is a bit set and
+ * the queue is a FIFO ring buffer of ints, meaning no allocation is done per block. Entities are
+ * found with one query for the whole fill region per tick, rather than one query per block.
+ * <p>
  * This should be used on the server side
  *
  * @author CrowsOfWar
  */
 public class LightningFloodFill {
 
+	private static final int BLOCKS_PER_TICK = 20;
+
 	private final World world;
 	private final Consumer<EntityLivingBase> entityCallback;
 	private final BlockPos originalPos;
-	private final int expansionSq;
+	private final int expansion, expansionSq;
+	/**
+	 * Side length of the cube around the original position
+	 */
+	private final int size;
+	private final AxisAlignedBB region;
+	private final BlockPos.MutableBlockPos searchPos;
 
 	/**
-	 * Queue of water blocks to process
+	 * Ring buffer of indices of water blocks to process
 	 */
-	private final Queue<BlockPos> waterBlocksQueue;
+	private int[] queue;
+	private int queueHead, queueSize;
 	/**
-	 * Any BlockPos's which shouldn't be processed - have either already been processed or queued
-	 * to be processed (in {@link #waterBlocksQueue})
+	 * Indices of any positions which shouldn't be processed - have either already been processed
+	 * or queued to be processed
 	 */
-	private final Set<BlockPos> processedBlocks;
+	private final BitSet processedBlocks;
 
 	public LightningFloodFill(World world, BlockPos initialPos, int expansion,
 							  Consumer<EntityLivingBase> entityCallback) {
 		this.world = world;
-		this.waterBlocksQueue = new PriorityQueue<>(expansion * expansion * expansion);
-		this.processedBlocks = new TreeSet<>();
 		this.entityCallback = entityCallback;
 		this.originalPos = initialPos;
+		this.expansion = expansion;
 		this.expansionSq = expansion * expansion;
+		this.size = expansion * 2 + 1;
+		this.region = new AxisAlignedBB(initialPos).grow(expansion);
+		this.searchPos = new BlockPos.MutableBlockPos();
+		this.queue = new int[64];
+		this.processedBlocks = new BitSet(size * size * size);
 
-		waterBlocksQueue.add(initialPos);
-		processedBlocks.add(initialPos);
+		enqueue(index(0, 0, 0));
 	}
 
 	/**
@@ -53,36 +71,51 @@ public class LightningFloodFill {
 	 */
 	public boolean tick() {
 
-		for (int i = 0; i < 20 && !waterBlocksQueue.isEmpty(); i++) {
-			processBlock();
+		if (queueSize == 0) {
+			return true;
 		}
 
-		return waterBlocksQueue.isEmpty();
+		List<EntityLivingBase> entities = EntityCollisionGrid.getEntitiesWithinAABB(world,
+				EntityLivingBase.class, region);
 
-	}
+		for (int i = 0; i < BLOCKS_PER_TICK && queueSize > 0; i++) {
+			processBlock(entities);
+		}
+
+		return queueSize == 0;
 
-	private void processBlock() {
+	}
 
-		BlockPos pos = waterBlocksQueue.poll();
+	private void processBlock(List<EntityLivingBase> entities) {
 
-		// Detect entities at this BlockPos
+		int index = dequeue();
+		int dz = index % size - expansion;
+		int dy = index / size % size - expansion;
+		int dx = index / size / size - expansion;
+		int x = originalPos.getX() + dx, y = originalPos.getY() + dy, z = originalPos.getZ() + dz;
 
-		List<EntityLivingBase> entities = world.getEntitiesWithinAABB(EntityLivingBase.class, new
-				AxisAlignedBB(pos));
+		// Detect entities at this block
 		for (EntityLivingBase entity : entities) {
-			entityCallback.accept(entity);
+			AxisAlignedBB box = entity.getEntityBoundingBox();
+			if (box.maxX > x && box.minX < x + 1 && box.maxY > y && box.minY < y + 1 && box.maxZ > z
+					&& box.minZ < z + 1) {
+				entityCallback.accept(entity);
+			}
 		}
 
-		// Add more BlockPos to check
+		// Add more blocks to check
 		for (EnumFacing facing : EnumFacing.values()) {
-			BlockPos searchPos = pos.offset(facing);
-
-			if (searchPos.distanceSq(originalPos) <= expansionSq) {
-				boolean waterBlock = world.getBlockState(searchPos).getBlock() == Blocks.WATER;
-				boolean processedHere = processedBlocks.contains(searchPos);
-				if (waterBlock && !processedHere) {
-					waterBlocksQueue.add(searchPos);
-					processedBlocks.add(searchPos);
+			int sx = dx + facing.getFrontOffsetX();
+			int sy = dy + facing.getFrontOffsetY();
+			int sz = dz + facing.getFrontOffsetZ();
+
+			if (sx * sx + sy * sy + sz * sz <= expansionSq) {
+				int searchIndex = index(sx, sy, sz);
+				if (!processedBlocks.get(searchIndex)) {
+					searchPos.setPos(originalPos.getX() + sx, originalPos.getY() + sy, originalPos.getZ() + sz);
+					if (world.getBlockState(searchPos).getBlock() == Blocks.WATER) {
+						enqueue(searchIndex);
+					}
 				}
 			}
 
@@ -90,4 +123,32 @@ public class LightningFloodFill {
 
 	}
 
+	/**
+	 * Gets the index of the position, given its offset from the original position
+	 */
+	private int index(int dx, int dy, int dz) {
+		return ((dx + expansion) * size + dy + expansion) * size + dz + expansion;
+	}
+
+	private void enqueue(int index) {
+		if (queueSize == queue.length) {
+			int[] grown = new int[queue.length * 2];
+			for (int i = 0; i < queueSize; i++) {
+				grown[i] = queue[(queueHead + i) % queue.length];
+			}
+			queue = grown;
+			queueHead = 0;
+		}
+		queue[(queueHead + queueSize) % queue.length] = index;
+		queueSize++;
+		processedBlocks.set(index);
+	}
+
+	private int dequeue() {
+		int index = queue[queueHead];
+		queueHead = (queueHead + 1) % queue.length;
+		queueSize--;
+		return index;
+	}
+
 }
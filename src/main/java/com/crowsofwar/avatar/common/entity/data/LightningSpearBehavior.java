@@ -27,6 +27,7 @@ import net.minecraft.world.World;
 import com.crowsofwar.avatar.common.AvatarDamageSource;
 import com.crowsofwar.avatar.common.bending.BattlePerformanceScore;
 import com.crowsofwar.avatar.common.data.*;
+import com.crowsofwar.avatar.common.entity.EntityCollisionGrid;
 import com.crowsofwar.avatar.common.entity.EntityLightningSpear;
 import com.crowsofwar.gorecore.util.Vector;
 
@@ -99,7 +100,7 @@ public abstract class LightningSpearBehavior extends Behavior<EntityLightningSpe
 
 			World world = entity.world;
 			if (!entity.isDead) {
-				List<Entity> collidedList = world.getEntitiesWithinAABBExcludingEntity(entity, entity.getExpandedHitbox());
+				List<Entity> collidedList = EntityCollisionGrid.getEntitiesWithinAABBExcludingEntity(world, entity, entity.getExpandedHitbox());
 				if (!collidedList.isEmpty()) {
 					Entity collided = collidedList.get(0);
 					if (collided instanceof EntityLivingBase && collided != entity.getOwner()) {
@@ -145,7 +146,7 @@ public abstract class LightningSpearBehavior extends Behavior<EntityLightningSpe
 				AxisAlignedBB aabb = new AxisAlignedBB(entity.posX - radius, entity.posY - radius, entity.posZ - radius, entity.posX + radius,
 													   entity.posY + radius, entity.posZ + radius);
 
-				List<EntityLivingBase> targets = entity.world.getEntitiesWithinAABB(EntityLivingBase.class, aabb);
+				List<EntityLivingBase> targets = EntityCollisionGrid.getEntitiesWithinAABB(entity.world, EntityLivingBase.class, aabb);
 				for (EntityLivingBase target : targets) {
 					if (target.getDistanceSq(entity) > radius * radius) {
 						continue;
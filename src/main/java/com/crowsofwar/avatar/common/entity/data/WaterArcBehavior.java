@@ -28,6 +28,7 @@ import com.crowsofwar.avatar.common.data.BendingData;
 import com.crowsofwar.avatar.common.entity.AvatarEntity;
 import com.crowsofwar.avatar.common.entity.EntityWaterArc;
 import com.crowsofwar.avatar.common.util.Raytrace;
+import com.crowsofwar.gorecore.util.MutableVector;
 import com.crowsofwar.gorecore.util.Vector;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.nbt.NBTTagCompound;
@@ -68,22 +69,23 @@ public abstract class WaterArcBehavior extends Behavior<EntityWaterArc> {
 
 			Raytrace.Result res = Raytrace.getTargetBlock(owner, 3, false);
 
-			Vector target;
+			MutableVector motion = MutableVector.acquire();
 			if (res.hitSomething()) {
-				target = res.getPosPrecise();
+				motion.set(res.getPosPrecise());
 			} else {
-				Vector look = Vector.toRectangular(Math.toRadians(owner.rotationYaw),
-						Math.toRadians(owner.rotationPitch));
-				target = Vector.getEyePos(owner).plus(look.times(3));
+				motion.setRectangular(Math.toRadians(owner.rotationYaw), Math.toRadians(owner.rotationPitch));
+				motion.multiply(3).add(owner.posX, owner.posY + owner.getEyeHeight(), owner.posZ);
 			}
 
-			Vector motion = target.minus(water.position());
-			motion = motion.times(0.5 * 20);
-			water.setVelocity(motion);
+			motion.subtract(water.posX, water.posY, water.posZ).multiply(0.5 * 20);
+			water.motionX = motion.x() / 20;
+			water.motionY = motion.y() / 20;
+			water.motionZ = motion.z() / 20;
 
 			if (water.world.isRemote && water.canPlaySplash()) {
 				if (motion.sqrMagnitude() >= 0.004) water.playSplash();
 			}
+			motion.release();
 
 			// Ensure that owner always has stat ctrl active
 			BendingData.get(owner).addStatusControl(StatusControl.THROW_WATER);
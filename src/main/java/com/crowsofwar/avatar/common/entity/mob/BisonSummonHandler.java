@@ -21,7 +21,6 @@ import com.crowsofwar.avatar.common.data.TickHandler;
 import com.crowsofwar.avatar.common.data.ctx.BendingContext;
 import net.minecraft.entity.EntityLivingBase;
 
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -53,11 +52,15 @@ public class BisonSummonHandler extends TickHandler {
 
 	private boolean trySummonBison(EntityLivingBase player) {
 
-		List<EntitySkyBison> entities = player.world.getEntities(EntitySkyBison.class,
-				bison -> bison.getOwner() == player);
+		EntitySkyBison bison = null;
+		for (EntitySkyBison loaded : SkyBisonRegistry.get(player.world).getAll()) {
+			if (loaded.getOwner() == player) {
+				bison = loaded;
+				break;
+			}
+		}
 
-		if (!entities.isEmpty()) {
-			EntitySkyBison bison = entities.get(0);
+		if (bison != null) {
 			Random random = new Random();
 
 			// Find suitable location near player
@@ -129,8 +129,7 @@ public class EntitySkyBison extends EntityBender implements IEntityOwnable, IInv
 	 * sky bison with that id.
 	 */
 	public static EntitySkyBison findBison(World world, int id) {
-		List<EntitySkyBison> list = world.getEntities(EntitySkyBison.class, bison -> bison.getId() == id);
-		return list.isEmpty() ? null : list.get(0);
+		return SkyBisonRegistry.get(world).getById(id);
 	}
 
 	/**
@@ -138,8 +137,25 @@ public class EntitySkyBison extends EntityBender implements IEntityOwnable, IInv
 	 * no sky bison with that uuid.
 	 */
 	public static EntitySkyBison findBison(World world, UUID id) {
-		List<EntitySkyBison> list = world.getEntities(EntitySkyBison.class, bison -> bison.getUniqueID().equals(id));
-		return list.isEmpty() ? null : list.get(0);
+		return SkyBisonRegistry.get(world).getByUuid(id);
+	}
+
+	/**
+	 * Like {@link #findBison(World, UUID)}, but if the bison isn't loaded on the
+	 * server, loads the chunk it was last known to be in to find it.
+	 */
+	@Nullable
+	public static EntitySkyBison findOrLoadBison(World world, UUID id) {
+		EntitySkyBison bison = findBison(world, id);
+		if (bison == null && !world.isRemote) {
+			ChunkPos chunk = SkyBisonRegistry.get(world).getLastKnownChunk(id);
+			if (chunk != null) {
+				// Loading the chunk adds its entities to the world, and so to the registry
+				world.getChunkFromChunkCoords(chunk.x, chunk.z);
+				bison = findBison(world, id);
+			}
+		}
+		return bison;
 	}
 
 	@Override
@@ -398,6 +414,14 @@ public class EntitySkyBison extends EntityBender implements IEntityOwnable, IInv
 		dataManager.set(SYNC_ID, id);
 	}
 
+	@Override
+	public void notifyDataManagerChange(DataParameter<?> key) {
+		super.notifyDataManagerChange(key);
+		if (SYNC_ID.equals(key)) {
+			SkyBisonRegistry.onIdChanged(this);
+		}
+	}
+
 	// ================================================================================
 	// CHUNK LOADING
 	// ================================================================================
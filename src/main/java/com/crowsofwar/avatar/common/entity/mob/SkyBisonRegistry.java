@@ -0,0 +1,151 @@
+/* 
+  This file is part of AvatarMod.
+    
+  AvatarMod is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+  
+  AvatarMod is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+  
+  You should have received a copy of the GNU General Public License
+  along with AvatarMod. If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package com.crowsofwar.avatar.common.entity.mob;
+
+import com.crowsofwar.avatar.common.util.PerWorld;
+import com.crowsofwar.avatar.common.util.WorldEntityListener;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Keeps track of every loaded {@link EntitySkyBison} in a world, indexed by {@link
+ * EntitySkyBison#getId() bison id} and UUID, so bisons can be found without scanning every
+ * loaded entity in the world.
+ * <p>
+ * Also remembers the chunk each bison was in when it was unloaded, so that the bison can be
+ * loaded again when needed.
+ *
+ * @author CrowsOfWar
+ */
+public class SkyBisonRegistry extends WorldEntityListener {
+
+	private static final PerWorld<SkyBisonRegistry> registries = new PerWorld<>(world -> {
+		SkyBisonRegistry registry = new SkyBisonRegistry();
+		registry.listenTo(world);
+		return registry;
+	});
+
+	private final Set<EntitySkyBison> bisons;
+	private final Map<Integer, EntitySkyBison> byId;
+	private final Map<UUID, EntitySkyBison> byUuid;
+	/**
+	 * Id each bison is currently indexed under, so it can be removed when changed
+	 */
+	private final Map<EntitySkyBison, Integer> indexedIds;
+	/**
+	 * Chunks which bisons were in when they were unloaded (but not killed)
+	 */
+	private final Map<UUID, ChunkPos> lastKnownChunks;
+
+	private SkyBisonRegistry() {
+		bisons = new LinkedHashSet<>();
+		byId = new HashMap<>();
+		byUuid = new HashMap<>();
+		indexedIds = new IdentityHashMap<>();
+		lastKnownChunks = new HashMap<>();
+	}
+
+	/**
+	 * Gets the registry for the world, creating it (and indexing the currently loaded bisons) if
+	 * necessary.
+	 */
+	public static SkyBisonRegistry get(World world) {
+		return registries.get(world);
+	}
+
+	/**
+	 * Called by the bison when its id changed, to update the index.
+	 */
+	static void onIdChanged(EntitySkyBison bison) {
+		SkyBisonRegistry registry = registries.getIfPresent(bison.world);
+		if (registry != null && registry.bisons.contains(bison)) {
+			registry.unindexId(bison);
+			registry.indexId(bison);
+		}
+	}
+
+	@Nullable
+	public EntitySkyBison getById(int id) {
+		return byId.get(id);
+	}
+
+	@Nullable
+	public EntitySkyBison getByUuid(UUID id) {
+		return byUuid.get(id);
+	}
+
+	/**
+	 * Gets all loaded sky bisons in the world
+	 */
+	public Collection<EntitySkyBison> getAll() {
+		return bisons;
+	}
+
+	/**
+	 * Gets the chunk that the bison was in when it was unloaded. Returns null if the bison is
+	 * loaded, or it isn't known where it is.
+	 */
+	@Nullable
+	public ChunkPos getLastKnownChunk(UUID id) {
+		return lastKnownChunks.get(id);
+	}
+
+	private void indexId(EntitySkyBison bison) {
+		int id = bison.getId();
+		byId.put(id, bison);
+		indexedIds.put(bison, id);
+	}
+
+	private void unindexId(EntitySkyBison bison) {
+		Integer id = indexedIds.remove(bison);
+		if (id != null && byId.get(id) == bison) {
+			byId.remove(id);
+		}
+	}
+
+	@Override
+	public void onEntityAdded(Entity entity) {
+		if (entity instanceof EntitySkyBison && bisons.add((EntitySkyBison) entity)) {
+			EntitySkyBison bison = (EntitySkyBison) entity;
+			indexId(bison);
+			byUuid.put(bison.getUniqueID(), bison);
+			lastKnownChunks.remove(bison.getUniqueID());
+		}
+	}
+
+	@Override
+	public void onEntityRemoved(Entity entity) {
+		if (entity instanceof EntitySkyBison && bisons.remove(entity)) {
+			EntitySkyBison bison = (EntitySkyBison) entity;
+			unindexId(bison);
+			if (byUuid.get(bison.getUniqueID()) == bison) {
+				byUuid.remove(bison.getUniqueID());
+			}
+
+			// Entities are removed without being killed when their chunk unloads
+			if (!bison.isDead) {
+				lastKnownChunks.put(bison.getUniqueID(), new ChunkPos(bison.getPosition()));
+			}
+		}
+	}
+
+}
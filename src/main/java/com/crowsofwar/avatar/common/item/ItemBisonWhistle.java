@@ -128,7 +128,7 @@ public class ItemBisonWhistle extends Item implements AvatarItem {
 
 			} else {
 				// Long click - Summon bison
-				EntitySkyBison bison = EntitySkyBison.findBison(world, getBoundTo(stack));
+				EntitySkyBison bison = EntitySkyBison.findOrLoadBison(world, getBoundTo(stack));
 
 				if (bison != null) {
 
@@ -176,8 +176,10 @@ public class ItemBisonWhistle extends Item implements AvatarItem {
 						return new ActionResult<>(SUCCESS, stack);
 					} else {
 						UUID id = bison.getOwnerId();
-						String username = AccountUUIDs.getUsername(id);
-						MSG_BISON_TRANSFER_OFFLINE.send(player, username == null ? "{error}" : username);
+						AccountUUIDs.getUsernameAsync(id).thenAccept(username -> {
+							world.getMinecraftServer().addScheduledTask(() -> MSG_BISON_TRANSFER_OFFLINE
+									.send(player, username == null ? "{error}" : username));
+						});
 					}
 
 				}
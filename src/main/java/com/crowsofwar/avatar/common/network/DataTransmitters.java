@@ -20,19 +20,22 @@ package com.crowsofwar.avatar.common.network;
 import com.crowsofwar.avatar.AvatarLog;
 import com.crowsofwar.avatar.AvatarLog.WarningType;
 import com.crowsofwar.avatar.common.bending.BattlePerformanceScore;
+import com.crowsofwar.avatar.common.bending.BendingStyles;
 import com.crowsofwar.avatar.common.bending.StatusControl;
 import com.crowsofwar.avatar.common.data.*;
 import io.netty.buffer.ByteBuf;
 
 import java.util.*;
 
-import static com.crowsofwar.gorecore.util.GoreCoreByteBufUtil.readUUID;
-import static com.crowsofwar.gorecore.util.GoreCoreByteBufUtil.writeUUID;
+import static com.crowsofwar.gorecore.util.GoreCoreByteBufUtil.readVarInt;
+import static com.crowsofwar.gorecore.util.GoreCoreByteBufUtil.writeVarInt;
 
 /**
  * DataTransmitters are responsible for reading and writing certain parts of
  * player data to the network. For example, there is a transmitter for the
  * bending list, the ability data, and chi.
+ * <p>
+ * Abilities and bending styles are sent by their network ids; see {@link NetworkIds}.
  *
  * @author CrowsOfWar
  */
@@ -43,48 +46,63 @@ public class DataTransmitters {
 
 				@Override
 				public void write(ByteBuf buf, List<UUID> t) {
-					buf.writeInt(t.size());
+					writeVarInt(buf, t.size());
 					for (UUID bendingId : t) {
-						writeUUID(buf, bendingId);
+						writeVarInt(buf, BendingStyles.getNetworkId(bendingId));
 					}
 				}
 
 				@Override
 				public List<UUID> read(ByteBuf buf, BendingData data) {
-					int size = buf.readInt();
+					int size = readVarInt(buf);
 					List<UUID> out = new ArrayList<>(size);
 					for (int i = 0; i < size; i++) {
-						out.add(readUUID(buf));
+						UUID bendingId = NetworkIds.bendingFromServer(readVarInt(buf));
+						if (bendingId == null) {
+							AvatarLog.warn(WarningType.WEIRD_PACKET, "Invalid bending network id");
+						} else {
+							out.add(bendingId);
+						}
 					}
 					return out;
 				}
 			};
 
-	public static final DataTransmitter<Map<String, AbilityData>> ABILITY_DATA = new
-			DataTransmitter<Map<String, AbilityData>>() {
+	/**
+	 * Sends either every ability data, or a delta with only the changed fields of the changed
+	 * ability data
+	 */
+	public static final DataTransmitter<AbilityDataUpdate> ABILITY_DATA = new
+			DataTransmitter<AbilityDataUpdate>() {
 
 				@Override
-				public void write(ByteBuf buf, Map<String, AbilityData> t) {
-					Set<Map.Entry<String, AbilityData>> entries = t.entrySet();
-					buf.writeInt(entries.size());
-					for (Map.Entry<String, AbilityData> entry : entries) {
-						entry.getValue().toBytes(buf);
+				public void write(ByteBuf buf, AbilityDataUpdate t) {
+					buf.writeBoolean(t.isFullSnapshot());
+					writeVarInt(buf, t.getEntries().size());
+					for (AbilityData abilityData : t.getEntries()) {
+						if (t.isFullSnapshot()) {
+							abilityData.toBytes(buf);
+						} else {
+							abilityData.deltaToBytes(buf);
+						}
 					}
 				}
 
 				@Override
-				public Map<String, AbilityData> read(ByteBuf buf, BendingData data) {
-					Map<String, AbilityData> out = new HashMap<>();
-					int size = buf.readInt();
+				public AbilityDataUpdate read(ByteBuf buf, BendingData data) {
+					boolean fullSnapshot = buf.readBoolean();
+					List<AbilityData> out = new ArrayList<>();
+					int size = readVarInt(buf);
 					for (int i = 0; i < size; i++) {
-						AbilityData abilityData = AbilityData.createFromBytes(buf, data);
+						AbilityData abilityData = fullSnapshot ? AbilityData.createFromBytes(buf, data)
+								: AbilityData.createFromDeltaBytes(buf, data);
 						if (abilityData == null) {
 							AvatarLog.warn(WarningType.WEIRD_PACKET, "Invalid ability ID sent for ability data");
 						} else {
-							out.put(abilityData.getAbilityName(), abilityData);
+							out.add(abilityData);
 						}
 					}
-					return out;
+					return new AbilityDataUpdate(fullSnapshot, out);
 				}
 			};
 
@@ -92,18 +110,18 @@ public class DataTransmitters {
 
 		@Override
 		public void write(ByteBuf buf, List<StatusControl> t) {
-			buf.writeInt(t.size());
+			writeVarInt(buf, t.size());
 			for (StatusControl sc : t) {
-				buf.writeInt(sc.id());
+				writeVarInt(buf, sc.id());
 			}
 		}
 
 		@Override
 		public List<StatusControl> read(ByteBuf buf, BendingData data) {
-			int size = buf.readInt();
+			int size = readVarInt(buf);
 			List<StatusControl> out = new ArrayList<>();
 			for (int i = 0; i < size; i++) {
-				StatusControl sc = StatusControl.lookup(buf.readInt());
+				StatusControl sc = StatusControl.lookup(readVarInt(buf));
 				if (sc == null)
 					AvatarLog.warn(WarningType.WEIRD_PACKET, "Invalid status control id");
 				else
@@ -145,16 +163,16 @@ public class DataTransmitters {
 
 		@Override
 		public void write(ByteBuf buf, List<TickHandler> list) {
-			buf.writeInt(list.size());
+			writeVarInt(buf, list.size());
 			for (TickHandler handler : list) {
-				buf.writeInt(handler.id());
+				handler.toBytes(buf);
 			}
 		}
 
 		@Override
 		public List<TickHandler> read(ByteBuf buf, BendingData data) {
 			List<TickHandler> list = new ArrayList<>();
-			int length = buf.readInt();
+			int length = readVarInt(buf);
 			for (int i = 0; i < length; i++) {
 				list.add(TickHandler.fromBytes(buf));
 			}
@@ -182,16 +200,13 @@ public class DataTransmitters {
 
 		@Override
 		public void write(ByteBuf buf, UUID t) {
-			writeUUID(buf, t == null ? new UUID(0, 0) : t);
+			// Network ids start at 1, so 0 means no active bending
+			writeVarInt(buf, t == null ? 0 : BendingStyles.getNetworkId(t));
 		}
 
 		@Override
 		public UUID read(ByteBuf buf, BendingData data) {
-			UUID id = readUUID(buf);
-			if (id.equals(new UUID(0, 0))) {
-				return null;
-			}
-			return id;
+			return NetworkIds.bendingFromServer(readVarInt(buf));
 		}
 	};
 
@@ -0,0 +1,168 @@
+/* 
+  This file is part of AvatarMod.
+    
+  AvatarMod is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+  
+  AvatarMod is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+  
+  You should have received a copy of the GNU General Public License
+  along with AvatarMod. If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.crowsofwar.avatar.common.network;
+
+import com.crowsofwar.avatar.AvatarInfo;
+import com.crowsofwar.avatar.AvatarMod;
+import com.crowsofwar.avatar.common.bending.Abilities;
+import com.crowsofwar.avatar.common.bending.Ability;
+import com.crowsofwar.avatar.common.bending.BendingStyle;
+import com.crowsofwar.avatar.common.bending.BendingStyles;
+import com.crowsofwar.avatar.common.network.packets.PacketCNetworkIds;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Abilities and bending styles are sent over the network as compact numeric ids rather than
+ * names or UUIDs. The server uses its own ids ({@link Abilities#get(int)},
+ * {@link BendingStyles#get(byte)}), and sends them to each player when they log in. The client
+ * then uses the server's ids, so they still match if the client registered things in a
+ * different order.
+ * <p>
+ * Until the server's ids are received, the client assumes they are the same as its own.
+ *
+ * @author CrowsOfWar
+ */
+@Mod.EventBusSubscriber(modid = AvatarInfo.MOD_ID)
+public class NetworkIds {
+
+	/**
+	 * The ids of the server the client is connected to; null if not received yet. Replaced on
+	 * the network thread, so it is replaced as a whole.
+	 */
+	private static volatile ServerIds serverIds;
+
+	private NetworkIds() {
+	}
+
+	@SubscribeEvent
+	public static void onLogin(PlayerEvent.PlayerLoggedInEvent e) {
+		if (e.player instanceof EntityPlayerMP) {
+
+			List<String> abilityNames = new ArrayList<>();
+			for (Ability ability : Abilities.all()) {
+				abilityNames.add(ability.getName());
+			}
+
+			// Network ids of bending styles start at 1, so there are gaps
+			List<UUID> bendingIds = new ArrayList<>();
+			for (BendingStyle style : BendingStyles.all()) {
+				int networkId = style.getNetworkId();
+				while (bendingIds.size() <= networkId) {
+					bendingIds.add(null);
+				}
+				bendingIds.set(networkId, style.getId());
+			}
+
+			AvatarMod.network.sendTo(new PacketCNetworkIds(abilityNames, bendingIds),
+					(EntityPlayerMP) e.player);
+
+		}
+	}
+
+	/**
+	 * Called on the client when the server's ids are received.
+	 *
+	 * @param abilityNames Names of abilities, by the server's network id
+	 * @param bendingIds   Ids of bending styles, by the server's network id. May contain null
+	 */
+	public static void receiveServerIds(List<String> abilityNames, List<UUID> bendingIds) {
+		serverIds = new ServerIds(abilityNames, bendingIds);
+	}
+
+	/**
+	 * Gets the server's network id of the ability, for the client to send. Returns -1 if the
+	 * server doesn't have the ability.
+	 */
+	public static int abilityToServer(Ability ability) {
+		ServerIds ids = serverIds;
+		if (ids == null) {
+			return Abilities.getNetworkId(ability.getName());
+		}
+		return ids.abilityIds.getOrDefault(ability.getName(), -1);
+	}
+
+	/**
+	 * Gets the ability with the server's network id, for the client to read. Returns null if
+	 * the client doesn't have the ability.
+	 */
+	@Nullable
+	public static Ability abilityFromServer(int networkId) {
+		ServerIds ids = serverIds;
+		if (ids == null) {
+			return Abilities.get(networkId);
+		}
+		return networkId >= 0 && networkId < ids.abilityNames.length
+				? Abilities.get(ids.abilityNames[networkId]) : null;
+	}
+
+	/**
+	 * Gets the server's network id of the bending style, for the client to send. Returns 0 if
+	 * the server doesn't have the bending style.
+	 */
+	public static int bendingToServer(UUID bendingId) {
+		ServerIds ids = serverIds;
+		if (ids == null) {
+			return BendingStyles.has(bendingId) ? BendingStyles.getNetworkId(bendingId) : 0;
+		}
+		return ids.bendingNetworkIds.getOrDefault(bendingId, 0);
+	}
+
+	/**
+	 * Gets the id of the bending style with the server's network id, for the client to read.
+	 * Returns null if there is no such bending style.
+	 */
+	@Nullable
+	public static UUID bendingFromServer(int networkId) {
+		ServerIds ids = serverIds;
+		if (ids == null) {
+			BendingStyle style = BendingStyles.get((byte) networkId);
+			return style == null ? null : style.getId();
+		}
+		return networkId > 0 && networkId < ids.bendingIds.length ? ids.bendingIds[networkId] : null;
+	}
+
+	private static class ServerIds {
+
+		private final String[] abilityNames;
+		private final Map<String, Integer> abilityIds;
+		private final UUID[] bendingIds;
+		private final Map<UUID, Integer> bendingNetworkIds;
+
+		private ServerIds(List<String> abilityNames, List<UUID> bendingIds) {
+			this.abilityNames = abilityNames.toArray(new String[0]);
+			this.abilityIds = new HashMap<>();
+			for (int i = 0; i < this.abilityNames.length; i++) {
+				abilityIds.put(this.abilityNames[i], i);
+			}
+			this.bendingIds = bendingIds.toArray(new UUID[0]);
+			this.bendingNetworkIds = new HashMap<>();
+			for (int i = 0; i < this.bendingIds.length; i++) {
+				if (this.bendingIds[i] != null) {
+					bendingNetworkIds.put(this.bendingIds[i], i);
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,197 @@
+/* 
+  This file is part of AvatarMod.
+    
+  AvatarMod is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+  
+  AvatarMod is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+  
+  You should have received a copy of the GNU General Public License
+  along with AvatarMod. If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.crowsofwar.avatar.common.network;
+
+import com.crowsofwar.avatar.AvatarInfo;
+import com.crowsofwar.avatar.AvatarLog;
+import com.crowsofwar.avatar.common.bending.Ability;
+import com.crowsofwar.avatar.common.bending.StatusControl;
+import com.crowsofwar.avatar.common.network.packets.PacketSUseAbility;
+import com.crowsofwar.avatar.common.network.packets.PacketSUseStatusControl;
+import com.crowsofwar.avatar.common.util.Raytrace;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+
+import java.util.*;
+
+import static com.crowsofwar.avatar.common.config.ConfigStats.STATS_CONFIG;
+
+/**
+ * Ability and status control inputs sent by players are queued here and used at the end of the
+ * tick, rather than as each packet arrives.
+ * <p>
+ * Each player has a budget of ability inputs which refills over time; inputs over the budget
+ * are rejected. Status controls don't use the budget, since held controls are sent every tick,
+ * and there are only a few status controls which a player can use at once. If the same ability
+ * or status control is sent multiple times in one tick, it is only used once, with the most
+ * recent raytrace.
+ *
+ * @author CrowsOfWar
+ */
+@Mod.EventBusSubscriber(modid = AvatarInfo.MOD_ID)
+public class PlayerInputQueue {
+
+	/**
+	 * Minimum ticks between warnings about the same player sending too many inputs
+	 */
+	private static final int WARNING_INTERVAL = 200;
+
+	private static final Map<EntityPlayerMP, PlayerInputs> inputs = new HashMap<>();
+	private static long currentTick;
+
+	private static long acceptedInputs, coalescedInputs, rejectedInputs;
+
+	private PlayerInputQueue() {
+	}
+
+	/**
+	 * Queues the player's ability input to be used at the end of the tick.
+	 */
+	public static void queueAbility(EntityPlayerMP player, Ability ability, Raytrace.Result raytrace) {
+		PlayerInputs playerInputs = acceptInput(player);
+		if (playerInputs != null && ability != null) {
+			if (playerInputs.abilities.put(ability, raytrace) != null) {
+				coalescedInputs++;
+			}
+		}
+	}
+
+	/**
+	 * Queues the player's status control input to be used at the end of the tick. This doesn't
+	 * take from the player's budget.
+	 */
+	public static void queueStatusControl(EntityPlayerMP player, StatusControl statusControl,
+										  Raytrace.Result raytrace) {
+		if (statusControl != null) {
+			PlayerInputs playerInputs = getInputs(player);
+			acceptedInputs++;
+			if (playerInputs.statusControls.put(statusControl, raytrace) != null) {
+				coalescedInputs++;
+			}
+		}
+	}
+
+	private static PlayerInputs getInputs(EntityPlayerMP player) {
+		return inputs.computeIfAbsent(player, p -> new PlayerInputs());
+	}
+
+	/**
+	 * Takes an ability input from the player's budget. Returns the player's queued inputs, or
+	 * null if the input was rejected.
+	 */
+	private static PlayerInputs acceptInput(EntityPlayerMP player) {
+		PlayerInputs playerInputs = getInputs(player);
+		playerInputs.refill();
+
+		if (playerInputs.tokens < 1) {
+			rejectedInputs++;
+			if (currentTick - playerInputs.lastWarningTick >= WARNING_INTERVAL) {
+				playerInputs.lastWarningTick = currentTick;
+				AvatarLog.warnHacking(player.getName(), "sending abilities too fast; " +
+						"ignoring some of them");
+			}
+			return null;
+		}
+
+		playerInputs.tokens--;
+		acceptedInputs++;
+		return playerInputs;
+	}
+
+	@SubscribeEvent
+	public static void onTick(TickEvent.ServerTickEvent e) {
+		if (e.phase == TickEvent.Phase.END) {
+
+			Iterator<Map.Entry<EntityPlayerMP, PlayerInputs>> iterator = inputs.entrySet().iterator();
+			while (iterator.hasNext()) {
+				Map.Entry<EntityPlayerMP, PlayerInputs> entry = iterator.next();
+				EntityPlayerMP player = entry.getKey();
+				PlayerInputs playerInputs = entry.getValue();
+
+				// Respawning creates a new player entity
+				if (player.isDead) {
+					iterator.remove();
+					continue;
+				}
+
+				for (Map.Entry<Ability, Raytrace.Result> input : playerInputs.abilities.entrySet()) {
+					PacketSUseAbility.Handler.useAbility(player, input.getKey(), input.getValue());
+				}
+				for (Map.Entry<StatusControl, Raytrace.Result> input : playerInputs.statusControls.entrySet()) {
+					PacketSUseStatusControl.Handler.useStatusControl(player, input.getKey(), input.getValue());
+				}
+				playerInputs.clear();
+			}
+
+			currentTick++;
+
+		}
+	}
+
+	@SubscribeEvent
+	public static void onLogout(PlayerEvent.PlayerLoggedOutEvent e) {
+		inputs.remove(e.player);
+	}
+
+	/**
+	 * Total number of inputs which were queued to be used
+	 */
+	public static long getAcceptedInputs() {
+		return acceptedInputs;
+	}
+
+	/**
+	 * Total number of accepted inputs which replaced an identical input queued in the same tick
+	 */
+	public static long getCoalescedInputs() {
+		return coalescedInputs;
+	}
+
+	/**
+	 * Total number of inputs which were ignored because the player sent too many
+	 */
+	public static long getRejectedInputs() {
+		return rejectedInputs;
+	}
+
+	private static class PlayerInputs {
+
+		private final Map<Ability, Raytrace.Result> abilities = new LinkedHashMap<>();
+		private final Map<StatusControl, Raytrace.Result> statusControls = new LinkedHashMap<>();
+		private float tokens = STATS_CONFIG.inputBurst;
+		private long lastRefillTick = currentTick;
+		private long lastWarningTick = -WARNING_INTERVAL;
+
+		private void refill() {
+			if (lastRefillTick != currentTick) {
+				tokens += (currentTick - lastRefillTick) * STATS_CONFIG.inputsPerSecond / 20;
+				tokens = Math.min(tokens, STATS_CONFIG.inputBurst);
+				lastRefillTick = currentTick;
+			}
+		}
+
+		private void clear() {
+			abilities.clear();
+			statusControls.clear();
+		}
+
+	}
+
+}
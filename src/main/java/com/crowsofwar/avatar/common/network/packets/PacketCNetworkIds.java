@@ -0,0 +1,96 @@
+/* 
+  This file is part of AvatarMod.
+    
+  AvatarMod is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+  
+  AvatarMod is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+  
+  You should have received a copy of the GNU General Public License
+  along with AvatarMod. If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.crowsofwar.avatar.common.network.packets;
+
+import com.crowsofwar.avatar.common.network.NetworkIds;
+import io.netty.buffer.ByteBuf;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.crowsofwar.gorecore.util.GoreCoreByteBufUtil.*;
+
+/**
+ * Sent to players when they log in, telling the client the server's network ids of abilities
+ * and bending styles.
+ * <p>
+ * The ids are applied as soon as the packet is read, on the network thread. This way, packets
+ * received afterwards are already read with the server's ids.
+ *
+ * @author CrowsOfWar
+ * @see NetworkIds
+ */
+public class PacketCNetworkIds extends AvatarPacket<PacketCNetworkIds> {
+
+	private List<String> abilityNames;
+	private List<UUID> bendingIds;
+
+	public PacketCNetworkIds() {
+	}
+
+	public PacketCNetworkIds(List<String> abilityNames, List<UUID> bendingIds) {
+		this.abilityNames = abilityNames;
+		this.bendingIds = bendingIds;
+	}
+
+	@Override
+	public void avatarFromBytes(ByteBuf buf) {
+		int abilities = readVarInt(buf);
+		abilityNames = new ArrayList<>(abilities);
+		for (int i = 0; i < abilities; i++) {
+			abilityNames.add(readString(buf));
+		}
+
+		int bendings = readVarInt(buf);
+		bendingIds = new ArrayList<>(bendings);
+		for (int i = 0; i < bendings; i++) {
+			bendingIds.add(buf.readBoolean() ? readUUID(buf) : null);
+		}
+
+		NetworkIds.receiveServerIds(abilityNames, bendingIds);
+	}
+
+	@Override
+	public void avatarToBytes(ByteBuf buf) {
+		writeVarInt(buf, abilityNames.size());
+		for (String name : abilityNames) {
+			writeString(buf, name);
+		}
+
+		writeVarInt(buf, bendingIds.size());
+		for (UUID id : bendingIds) {
+			buf.writeBoolean(id != null);
+			if (id != null) {
+				writeUUID(buf, id);
+			}
+		}
+	}
+
+	public static class Handler extends AvatarPacketHandler<PacketCNetworkIds, IMessage> {
+
+		@Override
+		IMessage avatarOnMessage(PacketCNetworkIds message, MessageContext ctx) {
+			// Already applied when read
+			return null;
+		}
+
+	}
+
+}
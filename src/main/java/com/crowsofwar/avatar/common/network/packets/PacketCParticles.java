@@ -14,7 +14,6 @@
   You should have received a copy of the GNU General Public License
   along with AvatarMod. If not, see <http://www.gnu.org/licenses/>.
 */
-
 package com.crowsofwar.avatar.common.network.packets;
 
 import net.minecraft.client.Minecraft;
@@ -24,95 +23,128 @@ import net.minecraftforge.fml.common.network.simpleimpl.*;
 
 import com.crowsofwar.avatar.AvatarLog;
 import com.crowsofwar.avatar.AvatarLog.WarningType;
+import com.crowsofwar.avatar.common.particle.ParticleBurst;
 import io.netty.buffer.ByteBuf;
 
-import java.util.Random;
+import java.util.*;
+
+import static com.crowsofwar.gorecore.util.GoreCoreByteBufUtil.*;
 
 /**
+ * Sent to clients to spawn one or more bursts of particles.
+ * <p>
+ * Uses a compact encoding: counts are varints, the position is sent as the 16x16x16 chunk
+ * section it is in followed by fixed-point offsets inside that section, and the velocities are
+ * sent as fixed-point shorts.
+ *
  * @author CrowsOfWar
  */
 public class PacketCParticles extends AvatarPacket<PacketCParticles> {
-	private EnumParticleTypes particle;
-	private int minimum, maximum;
-	private double x, y, z;
-	private double maxVelocityX, maxVelocityY, maxVelocityZ;
+
+	/**
+	 * Written before the payload; increment whenever the encoding changes
+	 */
+	private static final int PROTOCOL_VERSION = 2;
+	/**
+	 * Fixed-point scale of position offsets within a chunk section. 16 * 4096 fills an
+	 * unsigned short.
+	 */
+	private static final double POSITION_SCALE = 4096;
+	/**
+	 * Fixed-point scale of velocities, which are in blocks/tick; allows velocities up to 32
+	 * blocks/tick
+	 */
+	private static final double VELOCITY_SCALE = 1024;
+
+	private List<ParticleBurst> bursts;
 
 	public PacketCParticles() {
 	}
 
 	public PacketCParticles(EnumParticleTypes particle, int minimum, int maximum, double x, double y, double z, double maxVelocityX,
 					double maxVelocityY, double maxVelocityZ) {
-		this.particle = particle;
-		this.minimum = minimum;
-		this.maximum = maximum;
-		this.x = x;
-		this.y = y;
-		this.z = z;
-		this.maxVelocityX = maxVelocityX;
-		this.maxVelocityY = maxVelocityY;
-		this.maxVelocityZ = maxVelocityZ;
+		this(Collections.singletonList(new ParticleBurst(particle, minimum, maximum, x, y, z, maxVelocityX,
+				maxVelocityY, maxVelocityZ)));
 	}
 
-	@Override
-	public void avatarFromBytes(ByteBuf buf) {
-		particle = EnumParticleTypes.values()[buf.readInt()];
-		minimum = buf.readInt();
-		maximum = buf.readInt();
-		x = buf.readDouble();
-		y = buf.readDouble();
-		z = buf.readDouble();
-		maxVelocityX = buf.readDouble();
-		maxVelocityY = buf.readDouble();
-		maxVelocityZ = buf.readDouble();
+	public PacketCParticles(List<ParticleBurst> bursts) {
+		this.bursts = bursts;
 	}
 
 	@Override
-	public void avatarToBytes(ByteBuf buf) {
-		buf.writeInt(particle.ordinal());
-		buf.writeInt(minimum);
-		buf.writeInt(maximum);
-		buf.writeDouble(x);
-		buf.writeDouble(y);
-		buf.writeDouble(z);
-		buf.writeDouble(maxVelocityX);
-		buf.writeDouble(maxVelocityY);
-		buf.writeDouble(maxVelocityZ);
-	}
-
-	public EnumParticleTypes getParticle() {
-		return particle;
-	}
-
-	public int getMinimum() {
-		return minimum;
-	}
+	public void avatarFromBytes(ByteBuf buf) {
+		int version = buf.readUnsignedByte();
+		if (version != PROTOCOL_VERSION) {
+			AvatarLog.warn(WarningType.WEIRD_PACKET, "Received particles with protocol version " + version
+					+ ", expected " + PROTOCOL_VERSION);
+			buf.skipBytes(buf.readableBytes());
+			bursts = Collections.emptyList();
+			return;
+		}
 
-	public int getMaximum() {
-		return maximum;
+		int size = readVarInt(buf);
+		bursts = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			int ordinal = readVarInt(buf);
+			EnumParticleTypes particle = ordinal < EnumParticleTypes.values().length
+					? EnumParticleTypes.values()[ordinal] : null;
+			int minimum = readVarInt(buf);
+			int maximum = minimum + readVarInt(buf);
+			double x = readPosition(buf);
+			double y = readPosition(buf);
+			double z = readPosition(buf);
+			double maxVelocityX = readVelocity(buf);
+			double maxVelocityY = readVelocity(buf);
+			double maxVelocityZ = readVelocity(buf);
+			bursts.add(new ParticleBurst(particle, minimum, maximum, x, y, z, maxVelocityX, maxVelocityY,
+					maxVelocityZ));
+		}
 	}
 
-	public double getX() {
-		return x;
+	@Override
+	public void avatarToBytes(ByteBuf buf) {
+		buf.writeByte(PROTOCOL_VERSION);
+		writeVarInt(buf, bursts.size());
+		for (ParticleBurst burst : bursts) {
+			writeVarInt(buf, burst.getParticle().ordinal());
+			writeVarInt(buf, burst.getMinimum());
+			writeVarInt(buf, Math.max(burst.getMaximum() - burst.getMinimum(), 0));
+			writePosition(buf, burst.getX());
+			writePosition(buf, burst.getY());
+			writePosition(buf, burst.getZ());
+			writeVelocity(buf, burst.getMaxVelocityX());
+			writeVelocity(buf, burst.getMaxVelocityY());
+			writeVelocity(buf, burst.getMaxVelocityZ());
+		}
 	}
 
-	public double getY() {
-		return y;
+	/**
+	 * Writes one coordinate as its chunk section coordinate, followed by the offset within the
+	 * section as an unsigned fixed-point short.
+	 */
+	private static void writePosition(ByteBuf buf, double coord) {
+		int section = (int) Math.floor(coord) >> 4;
+		int offset = (int) ((coord - section * 16) * POSITION_SCALE);
+		writeSignedVarInt(buf, section);
+		buf.writeShort(Math.min(offset, 0xFFFF));
 	}
 
-	public double getZ() {
-		return z;
+	private static double readPosition(ByteBuf buf) {
+		int section = readSignedVarInt(buf);
+		return section * 16 + buf.readUnsignedShort() / POSITION_SCALE;
 	}
 
-	public double getMaxVelocityX() {
-		return maxVelocityX;
+	private static void writeVelocity(ByteBuf buf, double velocity) {
+		long fixed = Math.round(velocity * VELOCITY_SCALE);
+		buf.writeShort((int) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, fixed)));
 	}
 
-	public double getMaxVelocityY() {
-		return maxVelocityY;
+	private static double readVelocity(ByteBuf buf) {
+		return buf.readShort() / VELOCITY_SCALE;
 	}
 
-	public double getMaxVelocityZ() {
-		return maxVelocityZ;
+	public List<ParticleBurst> getBursts() {
+		return bursts;
 	}
 
 	public static class Handler extends AvatarPacketHandler<PacketCParticles, IMessage> {
@@ -126,18 +158,23 @@ public class PacketCParticles extends AvatarPacket<PacketCParticles> {
 		 */
 		@Override
 		IMessage avatarOnMessage(PacketCParticles message, MessageContext ctx) {
-			EnumParticleTypes particle = message.getParticle();
-			if (particle == null) {
-				AvatarLog.warn(WarningType.WEIRD_PACKET, "Unknown particle received from server");
-				return null;
-			}
 			Random random = new Random();
-			int particles = random.nextInt(message.getMaximum() - message.getMinimum() + 1) + message.getMinimum();
-			for (int i = 0; i < particles; i++) {
-				Minecraft.getMinecraft().world.spawnParticle(particle, message.getX(), message.getY(), message.getZ(),
-															 message.getMaxVelocityX() * random.nextGaussian(),
-															 message.getMaxVelocityY() * random.nextGaussian(),
-															 message.getMaxVelocityZ() * random.nextGaussian());
+			for (ParticleBurst burst : message.getBursts()) {
+
+				EnumParticleTypes particle = burst.getParticle();
+				if (particle == null) {
+					AvatarLog.warn(WarningType.WEIRD_PACKET, "Unknown particle received from server");
+					continue;
+				}
+
+				int particles = random.nextInt(burst.getMaximum() - burst.getMinimum() + 1) + burst.getMinimum();
+				for (int i = 0; i < particles; i++) {
+					Minecraft.getMinecraft().world.spawnParticle(particle, burst.getX(), burst.getY(), burst.getZ(),
+																 burst.getMaxVelocityX() * random.nextGaussian(),
+																 burst.getMaxVelocityY() * random.nextGaussian(),
+																 burst.getMaxVelocityZ() * random.nextGaussian());
+				}
+
 			}
 			return null;
 		}
@@ -82,6 +82,9 @@ public class PacketCPlayerData extends AvatarPacket<PacketCPlayerData> {
 				for (DataCategory category : changed) {
 					category.read(copyBuf, data);
 				}
+				if (data.shouldRequestAbilityDataSnapshot()) {
+					AvatarMod.network.sendToServer(new PacketSRequestData(playerId));
+				}
 			});
 
 		} else {
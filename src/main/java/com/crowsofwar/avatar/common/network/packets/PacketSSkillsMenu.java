@@ -24,6 +24,8 @@ import com.crowsofwar.avatar.AvatarMod;
 import com.crowsofwar.avatar.common.bending.*;
 import com.crowsofwar.avatar.common.data.BendingData;
 import com.crowsofwar.avatar.common.gui.AvatarGuiHandler;
+import com.crowsofwar.avatar.common.network.NetworkIds;
+import com.crowsofwar.gorecore.util.GoreCoreByteBufUtil;
 import io.netty.buffer.ByteBuf;
 
 import javax.annotation.Nullable;
@@ -33,7 +35,7 @@ import java.util.UUID;
  * @author CrowsOfWar
  */
 public class PacketSSkillsMenu extends AvatarPacket<PacketSSkillsMenu> {
-	private byte element;
+	private int element;
 	private int abilityId;
 
 	public PacketSSkillsMenu() {
@@ -44,36 +46,33 @@ public class PacketSSkillsMenu extends AvatarPacket<PacketSSkillsMenu> {
 	}
 
 	public PacketSSkillsMenu(UUID element, @Nullable Ability ability) {
-		this.element = BendingStyles.getNetworkId(element);
+		this.element = NetworkIds.bendingToServer(element);
 		if (ability == null) {
 			abilityId = -1;
 		} else {
-			abilityId = Abilities.all().indexOf(ability);
+			abilityId = NetworkIds.abilityToServer(ability);
 		}
 	}
 
 	@Override
 	public void avatarFromBytes(ByteBuf buf) {
-		element = buf.readByte();
-		abilityId = buf.readInt();
+		element = GoreCoreByteBufUtil.readVarInt(buf);
+		abilityId = GoreCoreByteBufUtil.readSignedVarInt(buf);
 	}
 
 	@Override
 	public void avatarToBytes(ByteBuf buf) {
-		buf.writeByte(element);
-		buf.writeInt(abilityId);
+		GoreCoreByteBufUtil.writeVarInt(buf, element);
+		GoreCoreByteBufUtil.writeSignedVarInt(buf, abilityId);
 	}
 
 	public UUID getElement() {
-		return BendingStyles.get(element).getId();
+		return BendingStyles.get((byte) element).getId();
 	}
 
 	@Nullable
 	public Ability getAbility() {
-		if (abilityId == -1) {
-			return null;
-		}
-		return Abilities.all().get(abilityId);
+		return Abilities.get(abilityId);
 	}
 
 	public static class Handler extends AvatarPacketHandler<PacketSSkillsMenu, IMessage> {
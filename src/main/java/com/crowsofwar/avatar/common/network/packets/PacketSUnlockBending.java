@@ -26,6 +26,8 @@ import com.crowsofwar.avatar.AvatarMod;
 import com.crowsofwar.avatar.common.bending.*;
 import com.crowsofwar.avatar.common.data.BendingData;
 import com.crowsofwar.avatar.common.gui.*;
+import com.crowsofwar.avatar.common.network.NetworkIds;
+import com.crowsofwar.gorecore.util.GoreCoreByteBufUtil;
 import io.netty.buffer.ByteBuf;
 
 import java.util.*;
@@ -35,27 +37,27 @@ import java.util.*;
  */
 public class PacketSUnlockBending extends AvatarPacket<PacketSUnlockBending> {
 
-	private byte type;
+	private int type;
 
 	public PacketSUnlockBending() {
 	}
 
 	public PacketSUnlockBending(UUID type) {
-		this.type = BendingStyles.getNetworkId(type);
+		this.type = NetworkIds.bendingToServer(type);
 	}
 
 	@Override
 	public void avatarFromBytes(ByteBuf buf) {
-		type = buf.readByte();
+		type = GoreCoreByteBufUtil.readVarInt(buf);
 	}
 
 	@Override
 	public void avatarToBytes(ByteBuf buf) {
-		buf.writeByte(type);
+		GoreCoreByteBufUtil.writeVarInt(buf, type);
 	}
 
 	public UUID getUnlockType() {
-		return BendingStyles.get(type).getId();
+		return BendingStyles.get((byte) type).getId();
 	}
 
 	public static class Handler extends AvatarPacketHandler<PacketSUnlockBending, IMessage> {
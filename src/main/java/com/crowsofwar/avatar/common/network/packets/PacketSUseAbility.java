@@ -25,6 +25,8 @@ import com.crowsofwar.avatar.common.analytics.AvatarAnalytics;
 import com.crowsofwar.avatar.common.bending.*;
 import com.crowsofwar.avatar.common.controls.AvatarControl;
 import com.crowsofwar.avatar.common.data.*;
+import com.crowsofwar.avatar.common.network.NetworkIds;
+import com.crowsofwar.avatar.common.network.PlayerInputQueue;
 import com.crowsofwar.avatar.common.util.Raytrace;
 import com.crowsofwar.gorecore.util.GoreCoreByteBufUtil;
 import io.netty.buffer.ByteBuf;
@@ -54,17 +56,17 @@ public class PacketSUseAbility extends AvatarPacket<PacketSUseAbility> {
 
 	@Override
 	public void avatarFromBytes(ByteBuf buf) {
-		String abilityName = GoreCoreByteBufUtil.readString(buf);
-		ability = Abilities.get(abilityName);
+		int abilityId = GoreCoreByteBufUtil.readVarInt(buf);
+		ability = Abilities.get(abilityId);
 		if (ability == null) {
-			throw new NullPointerException("Server sent invalid ability over network: ID " + abilityName);
+			throw new NullPointerException("Server sent invalid ability over network: ID " + abilityId);
 		}
 		raytrace = Raytrace.Result.fromBytes(buf);
 	}
 
 	@Override
 	public void avatarToBytes(ByteBuf buf) {
-		GoreCoreByteBufUtil.writeString(buf, ability.getName());
+		GoreCoreByteBufUtil.writeVarInt(buf, NetworkIds.abilityToServer(ability));
 		raytrace.toBytes(buf);
 	}
 
@@ -80,20 +82,28 @@ public class PacketSUseAbility extends AvatarPacket<PacketSUseAbility> {
 		@Override
 		public IMessage avatarOnMessage(PacketSUseAbility message, MessageContext ctx) {
 			EntityPlayerMP player = ctx.getServerHandler().player;
+			PlayerInputQueue.queueAbility(player, message.getAbility(), message.getRaytrace());
+			return null;
+		}
+
+		/**
+		 * Uses an ability input queued by {@link PlayerInputQueue}.
+		 */
+		public static void useAbility(EntityPlayerMP player, Ability ability, Raytrace.Result raytrace) {
 			Bender bender = Bender.get(player);
 			if (bender != null) {
-				bender.executeAbility(message.getAbility(), message.getRaytrace());
+				bender.executeAbility(ability, raytrace);
 				// Send analytics
-				String abilityName = message.getAbility().getName();
-				String level = AbilityData.get(player, abilityName).getLevelDesc();
+				String abilityName = ability.getName();
+				AbilityData abilityData = AbilityData.get(player, abilityName);
+				String level = abilityData.getLevelDesc();
 				AvatarAnalytics.INSTANCE.pushEvent(getAbilityExecutionEvent(abilityName, level));
 
 				// If player just got to 100% XP so they can upgrade, send them a message
-				AbilityData abilityData = AbilityData.get(player, abilityName);
 				boolean notLevel4 = abilityData.getLevel() < 3;
 				if (abilityData.getXp() == 100 && abilityData.getLastXp() < 100 && notLevel4) {
 
-					UUID bendingId = message.getAbility().getBendingId();
+					UUID bendingId = ability.getBendingId();
 
 					MSG_CAN_UPGRADE_ABILITY.send(player, abilityName, abilityData.getLevel() + 2);
 					MSG_CAN_UPGRADE_ABILITY_2.send(player);
@@ -103,7 +113,6 @@ public class PacketSUseAbility extends AvatarPacket<PacketSUseAbility> {
 					abilityData.resetLastXp();
 				}
 			}
-			return null;
 		}
 	}
 }
@@ -29,6 +29,7 @@ import com.crowsofwar.avatar.common.data.AbilityData.AbilityTreePath;
 import com.crowsofwar.avatar.common.gui.ContainerSkillsGui;
 import com.crowsofwar.avatar.common.item.AvatarItems;
 import com.crowsofwar.avatar.common.item.ItemScroll.ScrollType;
+import com.crowsofwar.avatar.common.network.NetworkIds;
 import com.crowsofwar.gorecore.util.GoreCoreByteBufUtil;
 import io.netty.buffer.ByteBuf;
 
@@ -50,12 +51,12 @@ public class PacketSUseScroll extends AvatarPacket<PacketSUseScroll> {
 
 	@Override
 	public void avatarFromBytes(ByteBuf buf) {
-		ability = Abilities.get(GoreCoreByteBufUtil.readString(buf));
+		ability = Abilities.get(GoreCoreByteBufUtil.readVarInt(buf));
 	}
 
 	@Override
 	public void avatarToBytes(ByteBuf buf) {
-		GoreCoreByteBufUtil.writeString(buf, ability.getName());
+		GoreCoreByteBufUtil.writeVarInt(buf, NetworkIds.abilityToServer(ability));
 	}
 
 	public Ability getAbility() {
@@ -26,7 +26,9 @@ import com.crowsofwar.avatar.AvatarLog.WarningType;
 import com.crowsofwar.avatar.common.bending.StatusControl;
 import com.crowsofwar.avatar.common.data.BendingData;
 import com.crowsofwar.avatar.common.data.ctx.BendingContext;
+import com.crowsofwar.avatar.common.network.PlayerInputQueue;
 import com.crowsofwar.avatar.common.util.Raytrace;
+import com.crowsofwar.gorecore.util.GoreCoreByteBufUtil;
 import io.netty.buffer.ByteBuf;
 
 /**
@@ -46,7 +48,7 @@ public class PacketSUseStatusControl extends AvatarPacket<PacketSUseStatusContro
 
 	@Override
 	public void avatarFromBytes(ByteBuf buf) {
-		int id = buf.readInt();
+		int id = GoreCoreByteBufUtil.readVarInt(buf);
 		statusControl = StatusControl.lookup(id);
 		if (statusControl == null) {
 			AvatarLog.warn(WarningType.BAD_CLIENT_PACKET,
@@ -59,7 +61,7 @@ public class PacketSUseStatusControl extends AvatarPacket<PacketSUseStatusContro
 
 	@Override
 	public void avatarToBytes(ByteBuf buf) {
-		buf.writeInt(statusControl.id());
+		GoreCoreByteBufUtil.writeVarInt(buf, statusControl.id());
 		raytrace.toBytes(buf);
 	}
 
@@ -83,15 +85,20 @@ public class PacketSUseStatusControl extends AvatarPacket<PacketSUseStatusContro
 		@Override
 		IMessage avatarOnMessage(PacketSUseStatusControl message, MessageContext ctx) {
 			EntityPlayerMP player = ctx.getServerHandler().player;
+			PlayerInputQueue.queueStatusControl(player, message.getStatusControl(), message.getRaytrace());
+			return null;
+		}
+
+		/**
+		 * Uses a status control input queued by {@link PlayerInputQueue}.
+		 */
+		public static void useStatusControl(EntityPlayerMP player, StatusControl sc, Raytrace.Result raytrace) {
 			BendingData data = BendingData.get(player);
-			StatusControl sc = message.getStatusControl();
 			if (data.hasStatusControl(sc)) {
-				if (sc.execute(new BendingContext(data, player, message.getRaytrace()))) {
-					data.removeStatusControl(message.getStatusControl());
+				if (sc.execute(new BendingContext(data, player, raytrace))) {
+					data.removeStatusControl(sc);
 				}
 			}
-
-			return null;
 		}
 	}
 }
@@ -17,15 +17,13 @@
 
 package com.crowsofwar.avatar.common.particle;
 
-import com.crowsofwar.avatar.AvatarMod;
-import com.crowsofwar.avatar.common.network.packets.PacketCParticles;
 import net.minecraft.util.EnumParticleTypes;
 import net.minecraft.world.World;
-import net.minecraftforge.fml.common.network.NetworkRegistry.TargetPoint;
 
 /**
  * A particle spawner which operates on the server thread. It sends packets to
- * clients about particles.
+ * clients about particles; bursts are batched by the {@link ParticleBatcher} and
+ * sent at the end of the tick.
  * <p>
  * Avoid using spawnOneParticle as velocity might be unpredicted.
  *
@@ -49,10 +47,8 @@ public class NetworkParticleSpawner implements ParticleSpawner {
 							   int... parameters) {
 
 		if (!world.isRemote) {
-			TargetPoint point = new TargetPoint(world.provider.getDimension(), x, y, z, 64);
-
-			AvatarMod.network.sendToAllAround(new PacketCParticles(particle, minimum, maximum, x, y, z,
-					maxVelocityX / 20, maxVelocityY / 20, maxVelocityZ / 20), point);
+			ParticleBatcher.queue(world, new ParticleBurst(particle, minimum, maximum, x, y, z,
+					maxVelocityX / 20, maxVelocityY / 20, maxVelocityZ / 20));
 		}
 
 	}
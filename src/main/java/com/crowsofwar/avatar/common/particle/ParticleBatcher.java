@@ -0,0 +1,157 @@
+/* 
+  This file is part of AvatarMod.
+    
+  AvatarMod is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+  
+  AvatarMod is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+  
+  You should have received a copy of the GNU General Public License
+  along with AvatarMod. If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package com.crowsofwar.avatar.common.particle;
+
+import com.crowsofwar.avatar.AvatarInfo;
+import com.crowsofwar.avatar.AvatarMod;
+import com.crowsofwar.avatar.common.config.ConfigStats.ParticleSettings;
+import com.crowsofwar.avatar.common.network.packets.PacketCParticles;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+
+import java.util.*;
+
+import static com.crowsofwar.avatar.common.config.ConfigStats.STATS_CONFIG;
+
+/**
+ * Buffers the particle bursts spawned by {@link NetworkParticleSpawner NetworkParticleSpawners}
+ * during a world tick. At the end of the tick, each player in that world receives one packet
+ * containing every burst in range of them, rather than one packet per burst. Bursts are
+ * thinned out with distance and limited to a per-player budget; see {@link ParticleSettings}.
+ * <p>
+ * Only used on the server thread.
+ *
+ * @author CrowsOfWar
+ */
+@Mod.EventBusSubscriber(modid = AvatarInfo.MOD_ID)
+public class ParticleBatcher {
+
+	/**
+	 * Players never receive particle bursts farther than this many blocks from them
+	 */
+	public static final double BROADCAST_RANGE = 64;
+
+	/**
+	 * Maps dimension id to the bursts which were spawned there this tick
+	 */
+	private static final Map<Integer, List<ParticleBurst>> pending = new HashMap<>();
+
+	private ParticleBatcher() {
+	}
+
+	public static void queue(World world, ParticleBurst burst) {
+		pending.computeIfAbsent(world.provider.getDimension(), dimension -> new ArrayList<>()).add(burst);
+	}
+
+	@SubscribeEvent
+	public static void onWorldTick(TickEvent.WorldTickEvent e) {
+		World world = e.world;
+		if (e.phase == Phase.END && !world.isRemote) {
+
+			List<ParticleBurst> bursts = pending.remove(world.provider.getDimension());
+			if (bursts == null || bursts.isEmpty()) {
+				return;
+			}
+
+			for (EntityPlayer player : world.playerEntities) {
+				if (player instanceof EntityPlayerMP) {
+					List<ParticleBurst> toSend = selectBursts(player, bursts);
+					if (!toSend.isEmpty()) {
+						AvatarMod.network.sendTo(new PacketCParticles(toSend), (EntityPlayerMP) player);
+					}
+				}
+			}
+
+		}
+	}
+
+	/**
+	 * Determines which bursts to send to the player, applying level of detail and the particle
+	 * budget from {@link ParticleSettings}. Distant bursts have fewer particles, and the closest
+	 * bursts are sent first. The closest burst is always sent; a burst which doesn't fit into
+	 * what's left of the player's budget is reduced to fit, and once the budget is used up, the
+	 * remaining farther bursts are dropped.
+	 */
+	private static List<ParticleBurst> selectBursts(EntityPlayer player, List<ParticleBurst> bursts) {
+
+		ParticleSettings settings = STATS_CONFIG.particleSettings;
+		double maxDistance = Math.min(settings.maxDistance, BROADCAST_RANGE);
+		double fullDetailDistance = Math.min(settings.fullDetailDistance, maxDistance);
+
+		List<ParticleBurst> inRange = new ArrayList<>();
+		for (ParticleBurst burst : bursts) {
+			if (burst.getDistanceSq(player.posX, player.posY, player.posZ) <= maxDistance * maxDistance) {
+				inRange.add(burst);
+			}
+		}
+		if (inRange.isEmpty()) {
+			return inRange;
+		}
+		inRange.sort(Comparator.comparingDouble(burst -> burst.getDistanceSq(player.posX, player.posY,
+				player.posZ)));
+
+		List<ParticleBurst> selected = new ArrayList<>(inRange.size());
+		int particlesLeft = settings.budgetPerPlayer;
+		for (ParticleBurst burst : inRange) {
+
+			double distance = Math.sqrt(burst.getDistanceSq(player.posX, player.posY, player.posZ));
+			double detail = 1;
+			if (distance > fullDetailDistance) {
+				detail = 1 - (distance - fullDetailDistance) / (maxDistance - fullDetailDistance);
+			}
+
+			int minimum = (int) (burst.getMinimum() * detail);
+			int maximum = (int) Math.ceil(burst.getMaximum() * detail);
+			if (maximum <= 0) {
+				continue;
+			}
+			// The closest burst is always sent, since the player is most likely to see it
+			if (maximum > particlesLeft && !selected.isEmpty()) {
+				if (particlesLeft <= 0) {
+					break;
+				}
+				minimum = minimum * particlesLeft / maximum;
+				maximum = particlesLeft;
+			}
+			particlesLeft -= maximum;
+
+			if (minimum != burst.getMinimum() || maximum != burst.getMaximum()) {
+				burst = new ParticleBurst(burst.getParticle(), minimum, maximum, burst.getX(), burst.getY(),
+						burst.getZ(), burst.getMaxVelocityX(), burst.getMaxVelocityY(), burst.getMaxVelocityZ());
+			}
+			selected.add(burst);
+
+		}
+		return selected;
+
+	}
+
+	@SubscribeEvent
+	public static void onWorldUnload(WorldEvent.Unload e) {
+		if (!e.getWorld().isRemote) {
+			pending.remove(e.getWorld().provider.getDimension());
+		}
+	}
+
+}
@@ -0,0 +1,89 @@
+/* 
+  This file is part of AvatarMod.
+    
+  AvatarMod is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+  
+  AvatarMod is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+  
+  You should have received a copy of the GNU General Public License
+  along with AvatarMod. If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package com.crowsofwar.avatar.common.particle;
+
+import net.minecraft.util.EnumParticleTypes;
+
+/**
+ * One burst of particles spawned by the {@link NetworkParticleSpawner}, to be sent to clients.
+ * Velocities are in blocks/tick.
+ *
+ * @author CrowsOfWar
+ */
+public class ParticleBurst {
+
+	private final EnumParticleTypes particle;
+	private final int minimum, maximum;
+	private final double x, y, z;
+	private final double maxVelocityX, maxVelocityY, maxVelocityZ;
+
+	public ParticleBurst(EnumParticleTypes particle, int minimum, int maximum, double x, double y, double z,
+						 double maxVelocityX, double maxVelocityY, double maxVelocityZ) {
+		this.particle = particle;
+		this.minimum = minimum;
+		this.maximum = maximum;
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		this.maxVelocityX = maxVelocityX;
+		this.maxVelocityY = maxVelocityY;
+		this.maxVelocityZ = maxVelocityZ;
+	}
+
+	public EnumParticleTypes getParticle() {
+		return particle;
+	}
+
+	public int getMinimum() {
+		return minimum;
+	}
+
+	public int getMaximum() {
+		return maximum;
+	}
+
+	public double getX() {
+		return x;
+	}
+
+	public double getY() {
+		return y;
+	}
+
+	public double getZ() {
+		return z;
+	}
+
+	public double getMaxVelocityX() {
+		return maxVelocityX;
+	}
+
+	public double getMaxVelocityY() {
+		return maxVelocityY;
+	}
+
+	public double getMaxVelocityZ() {
+		return maxVelocityZ;
+	}
+
+	public double getDistanceSq(double x, double y, double z) {
+		double dx = this.x - x, dy = this.y - y, dz = this.z - z;
+		return dx * dx + dy * dy + dz * dz;
+	}
+
+}
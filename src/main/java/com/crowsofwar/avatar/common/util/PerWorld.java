@@ -0,0 +1,80 @@
+/* 
+  This file is part of AvatarMod.
+    
+  AvatarMod is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+  
+  AvatarMod is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+  
+  You should have received a copy of the GNU General Public License
+  along with AvatarMod. If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package com.crowsofwar.avatar.common.util;
+
+import com.crowsofwar.avatar.AvatarInfo;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * Holds a value for each loaded world, such as an index of the world's entities. The value is
+ * created when it is first requested for that world, and discarded when the world unloads.
+ * <p>
+ * Client and server worlds can be accessed from different threads, so the map of values is
+ * synchronized. Each value itself is normally only used by the thread which owns its world.
+ *
+ * @author CrowsOfWar
+ */
+@Mod.EventBusSubscriber(modid = AvatarInfo.MOD_ID)
+public class PerWorld<T> {
+
+	private static final List<PerWorld<?>> instances = new CopyOnWriteArrayList<>();
+
+	private final Map<World, T> values;
+	private final Function<World, T> factory;
+
+	/**
+	 * Creates a holder which uses the factory to create the value for each world. This should be
+	 * kept in a static field, since it is never released.
+	 */
+	public PerWorld(Function<World, T> factory) {
+		this.values = Collections.synchronizedMap(new HashMap<>());
+		this.factory = factory;
+		instances.add(this);
+	}
+
+	@SubscribeEvent
+	public static void onWorldUnload(WorldEvent.Unload e) {
+		for (PerWorld<?> instance : instances) {
+			instance.values.remove(e.getWorld());
+		}
+	}
+
+	/**
+	 * Gets the value for the world, creating it if necessary.
+	 */
+	public T get(World world) {
+		return values.computeIfAbsent(world, factory);
+	}
+
+	/**
+	 * Gets the value for the world, or null if it hasn't been created.
+	 */
+	@Nullable
+	public T getIfPresent(World world) {
+		return values.get(world);
+	}
+
+}
@@ -18,6 +18,7 @@
 package com.crowsofwar.avatar.common.util;
 
 import com.crowsofwar.avatar.AvatarMod;
+import com.crowsofwar.avatar.common.entity.EntityCollisionGrid;
 import com.crowsofwar.gorecore.util.Vector;
 import com.crowsofwar.gorecore.util.VectorI;
 import io.netty.buffer.ByteBuf;
@@ -27,13 +28,11 @@ import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.util.EnumFacing;
-import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.RayTraceResult;
 import net.minecraft.world.World;
 
 import javax.annotation.Nullable;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.function.BiPredicate;
 import java.util.function.Predicate;
@@ -147,34 +146,33 @@ public class Raytrace {
 
 	/**
 	 * Custom raytrace which allows you to specify a (Bi)Predicate to determine
-	 * if the block has been hit. Unfortunately, this implementation does not
-	 * correctly report the side hit (always is {@link EnumFacing#DOWN}).
+	 * if the block has been hit. Every block along the ray is checked, using
+	 * {@link VoxelTraversal}. If the block the ray starts in is hit, the side hit is
+	 * reported as {@link EnumFacing#DOWN}.
 	 *
 	 * @param world     The world
 	 * @param start     Starting position to raytrace
 	 * @param direction Normalized vector to specify direction
 	 * @param range     How many meters (blocks) to raytrace
-	 * @param verify    A BiPredicate used to verify if that block is correct
+	 * @param verify    A BiPredicate used to verify if that block is correct. The position is
+	 *                  mutable and only valid during the call.
 	 */
 	public static Result predicateRaytrace(World world, Vector start, Vector direction, double range,
 										   BiPredicate<BlockPos, IBlockState> verify) {
 
 		if (range == -1) range = 3;
 
-		Vector currentPosition = start;
-		Vector increment = direction.times(0.2);
-		while (currentPosition.sqrDist(start) <= range * range) {
-
-			BlockPos pos = currentPosition.toBlockPos();
-			IBlockState blockState = world.getBlockState(pos);
-			if (verify.test(pos, blockState)) {
-				return new Result(new VectorI(pos), EnumFacing.DOWN, currentPosition);
+		Result[] result = { new Result() };
+		VoxelTraversal.traverse(start, direction, range, (pos, side, distance) -> {
+			if (verify.test(pos, world.getBlockState(pos))) {
+				// Report a position just inside the block, rather than on its edge
+				Vector hitPos = distance == 0 ? start : start.plus(direction.normalize().times(distance + 0.01));
+				result[0] = new Result(new VectorI(pos), side == null ? EnumFacing.DOWN : side, hitPos);
+				return true;
 			}
-
-			currentPosition = currentPosition.plus(increment);
-
-		}
-		return new Result();
+			return false;
+		});
+		return result[0];
 
 	}
 
@@ -183,6 +181,17 @@ public class Raytrace {
 		return entityRaytrace(world, start, direction, maxDistance, entity -> true);
 	}
 
+	/**
+	 * Returns the entities hit by a ray, which stops at the first block hit. Only the columns of
+	 * the {@link EntityCollisionGrid} along the ray are checked, so only living entities,
+	 * AvatarEntities and projectiles can be hit.
+	 *
+	 * @param world     The world
+	 * @param start     Starting position of the ray
+	 * @param direction Normalized direction of the ray
+	 * @param maxRange  How far the ray goes if no block is hit
+	 * @param filter    Which entities can be hit
+	 */
 	public static List<Entity> entityRaytrace(World world, Vector start, Vector direction, double maxRange,
 											  Predicate<Entity> filter) {
 
@@ -194,24 +203,9 @@ public class Raytrace {
 			range = start.minus(stopAt).magnitude();
 		}
 
-		List<Entity> hit = new ArrayList<>();
-
 		Vector end = start.plus(direction.times(range));
-		AxisAlignedBB aabb = new AxisAlignedBB(start.x(), start.y(), start.z(), end.x(), end.y(), end.z());
-		List<Entity> entities = world.getEntitiesWithinAABB(Entity.class, aabb);
-
-		for (Entity entity : entities) {
-			if (filter.test(entity)) {
-				AxisAlignedBB collisionBox = entity.getEntityBoundingBox();
-				RayTraceResult result = collisionBox.calculateIntercept(start.toMinecraft(),
-						end.toMinecraft());
-				if (result != null) {
-					hit.add(entity);
-				}
-			}
-		}
-
-		return hit;
+		return EntityCollisionGrid.getEntitiesOnSegment(world, Entity.class, start.toMinecraft(),
+				end.toMinecraft(), filter);
 
 	}
 
@@ -349,6 +343,16 @@ public class Raytrace {
 			this.predicate = predicate;
 		}
 
+		/**
+		 * Returns whether a raytrace with this information would always have the same result as
+		 * one with the other information, so one raytrace can be used for both.
+		 */
+		public boolean isEquivalent(Info other) {
+			if (!needsRaytrace && !other.needsRaytrace) return true;
+			return needsRaytrace == other.needsRaytrace && range == other.range
+					&& raycastLiquids == other.raycastLiquids && predicate == other.predicate;
+		}
+
 	}
 
 }
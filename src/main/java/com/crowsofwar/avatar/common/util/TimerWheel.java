@@ -0,0 +1,134 @@
+/* 
+  This file is part of AvatarMod.
+    
+  AvatarMod is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+  
+  AvatarMod is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+  
+  You should have received a copy of the GNU General Public License
+  along with AvatarMod. If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package com.crowsofwar.avatar.common.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A bucketed timer wheel for values which expire after a number of ticks. Values are placed into
+ * the bucket for the tick they expire on, so each call to {@link #tick(Consumer)} only looks at
+ * the values in one bucket rather than every scheduled value.
+ * <p>
+ * There are {@link #BUCKETS} buckets; values scheduled further in the future than that wait in
+ * their bucket for additional rotations of the wheel.
+ *
+ * @author CrowsOfWar
+ */
+public class TimerWheel<T> {
+
+	private static final int BUCKETS = 256;
+
+	private final List<Entry<T>>[] buckets;
+	private long currentTick;
+	private int size;
+
+	@SuppressWarnings("unchecked")
+	public TimerWheel() {
+		buckets = new List[BUCKETS];
+		currentTick = 0;
+		size = 0;
+	}
+
+	/**
+	 * Schedules the value to expire in the given amount of ticks. Values scheduled for 0 or fewer
+	 * ticks expire on the next tick.
+	 */
+	public void schedule(T value, int ticks) {
+		long expiry = currentTick + Math.max(ticks, 1);
+		int index = (int) (expiry & (BUCKETS - 1));
+		if (buckets[index] == null) {
+			buckets[index] = new ArrayList<>();
+		}
+		buckets[index].add(new Entry<>(value, expiry));
+		size++;
+	}
+
+	/**
+	 * Advances the wheel by one tick, removing all values which expired and passing them to the
+	 * consumer.
+	 */
+	public void tick(Consumer<T> onExpired) {
+		currentTick++;
+		List<Entry<T>> bucket = buckets[(int) (currentTick & (BUCKETS - 1))];
+		if (bucket == null || bucket.isEmpty()) {
+			return;
+		}
+
+		// Swap-remove expired entries; entries which are due in a later rotation stay
+		int i = 0;
+		while (i < bucket.size()) {
+			Entry<T> entry = bucket.get(i);
+			if (entry.expiry <= currentTick) {
+				int last = bucket.size() - 1;
+				bucket.set(i, bucket.get(last));
+				bucket.remove(last);
+				size--;
+				onExpired.accept(entry.value);
+			} else {
+				i++;
+			}
+		}
+	}
+
+	/**
+	 * Calls the consumer for every scheduled value, along with the amount of ticks until it
+	 * expires.
+	 */
+	public void forEach(ObjIntConsumer<T> consumer) {
+		for (List<Entry<T>> bucket : buckets) {
+			if (bucket != null) {
+				for (Entry<T> entry : bucket) {
+					consumer.accept(entry.value, (int) (entry.expiry - currentTick));
+				}
+			}
+		}
+	}
+
+	public void clear() {
+		for (List<Entry<T>> bucket : buckets) {
+			if (bucket != null) {
+				bucket.clear();
+			}
+		}
+		size = 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	private static class Entry<T> {
+
+		private final T value;
+		private final long expiry;
+
+		private Entry(T value, long expiry) {
+			this.value = value;
+			this.expiry = expiry;
+		}
+
+	}
+
+}
@@ -0,0 +1,153 @@
+/* 
+  This file is part of AvatarMod.
+    
+  AvatarMod is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+  
+  AvatarMod is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+  
+  You should have received a copy of the GNU General Public License
+  along with AvatarMod. If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.crowsofwar.avatar.common.util;
+
+import com.crowsofwar.gorecore.util.Vector;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+
+import javax.annotation.Nullable;
+
+/**
+ * Walks along a ray through the block grid, visiting every block the ray passes through exactly
+ * once and in order (Amanatides and Woo's algorithm). Unlike stepping along the ray by a fixed
+ * amount, no blocks are skipped when the ray only clips a corner, and nothing is allocated per
+ * block.
+ *
+ * @author CrowsOfWar
+ */
+public class VoxelTraversal {
+
+	private VoxelTraversal() {
+	}
+
+	/**
+	 * Visits the blocks along the ray from the start position in the given direction, up to
+	 * <code>range</code> blocks away. The direction doesn't need to be normalized.
+	 *
+	 * @return Whether the visitor stopped the traversal
+	 * @see #traverse(double, double, double, double, double, double, Visitor)
+	 */
+	public static boolean traverse(Vector start, Vector direction, double range, Visitor visitor) {
+		double length = direction.magnitude();
+		if (length == 0) {
+			return traverse(start.x(), start.y(), start.z(), start.x(), start.y(), start.z(), visitor);
+		}
+		double scale = range / length;
+		return traverse(start.x(), start.y(), start.z(), start.x() + direction.x() * scale,
+				start.y() + direction.y() * scale, start.z() + direction.z() * scale, visitor);
+	}
+
+	/**
+	 * Visits the blocks which the line segment from (x0, y0, z0) to (x1, y1, z1) passes through,
+	 * starting with the block containing (x0, y0, z0).
+	 *
+	 * @return Whether the visitor stopped the traversal
+	 */
+	public static boolean traverse(double x0, double y0, double z0, double x1, double y1, double z1,
+								   Visitor visitor) {
+
+		int x = MathHelper.floor(x0);
+		int y = MathHelper.floor(y0);
+		int z = MathHelper.floor(z0);
+		BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos(x, y, z);
+		if (visitor.visit(pos, null, 0)) {
+			return true;
+		}
+
+		double dx = x1 - x0, dy = y1 - y0, dz = z1 - z0;
+		double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+		if (length == 0) {
+			return false;
+		}
+
+		// Distances are measured as a fraction of the segment (0 to 1) until passed to the visitor
+		int stepX = dx > 0 ? 1 : dx < 0 ? -1 : 0;
+		int stepY = dy > 0 ? 1 : dy < 0 ? -1 : 0;
+		int stepZ = dz > 0 ? 1 : dz < 0 ? -1 : 0;
+		double deltaX = stepX == 0 ? Double.POSITIVE_INFINITY : stepX / dx;
+		double deltaY = stepY == 0 ? Double.POSITIVE_INFINITY : stepY / dy;
+		double deltaZ = stepZ == 0 ? Double.POSITIVE_INFINITY : stepZ / dz;
+		double nextX = boundary(x0, x, stepX, deltaX);
+		double nextY = boundary(y0, y, stepY, deltaY);
+		double nextZ = boundary(z0, z, stepZ, deltaZ);
+
+		while (true) {
+
+			double t;
+			EnumFacing side;
+			if (nextX < nextY && nextX < nextZ) {
+				t = nextX;
+				x += stepX;
+				nextX += deltaX;
+				side = stepX > 0 ? EnumFacing.WEST : EnumFacing.EAST;
+			} else if (nextY < nextZ) {
+				t = nextY;
+				y += stepY;
+				nextY += deltaY;
+				side = stepY > 0 ? EnumFacing.DOWN : EnumFacing.UP;
+			} else {
+				t = nextZ;
+				z += stepZ;
+				nextZ += deltaZ;
+				side = stepZ > 0 ? EnumFacing.NORTH : EnumFacing.SOUTH;
+			}
+
+			if (t > 1) {
+				return false;
+			}
+
+			pos.setPos(x, y, z);
+			if (visitor.visit(pos, side, t * length)) {
+				return true;
+			}
+
+		}
+
+	}
+
+	/**
+	 * Gets the fraction of the segment at which it first crosses a block boundary on one axis.
+	 */
+	private static double boundary(double start, int block, int step, double delta) {
+		if (step > 0) {
+			return (block + 1 - start) * delta;
+		} else if (step < 0) {
+			return (start - block) * delta;
+		} else {
+			return Double.POSITIVE_INFINITY;
+		}
+	}
+
+	@FunctionalInterface
+	public interface Visitor {
+
+		/**
+		 * Called for each block the ray passes through.
+		 *
+		 * @param pos      Position of the block. This is reused for the next block, so use
+		 *                 {@link BlockPos#toImmutable()} to keep it.
+		 * @param side     Side of the block the ray entered through, or null for the first block
+		 * @param distance Distance from the start of the ray to where it entered the block
+		 * @return Whether to stop the traversal
+		 */
+		boolean visit(BlockPos.MutableBlockPos pos, @Nullable EnumFacing side, double distance);
+
+	}
+
+}
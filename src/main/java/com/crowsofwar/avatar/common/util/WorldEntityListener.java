@@ -0,0 +1,102 @@
+/* 
+  This file is part of AvatarMod.
+    
+  AvatarMod is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+  
+  AvatarMod is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+  
+  You should have received a copy of the GNU General Public License
+  along with AvatarMod. If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package com.crowsofwar.avatar.common.util;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IWorldEventListener;
+import net.minecraft.world.World;
+
+import javax.annotation.Nullable;
+
+/**
+ * A world event listener which is only notified about entities being added to and removed from
+ * the world. Used to keep indices of a world's entities up to date.
+ *
+ * @author CrowsOfWar
+ */
+public abstract class WorldEntityListener implements IWorldEventListener {
+
+	/**
+	 * Starts listening to the world, and calls {@link #onEntityAdded(Entity)} for the entities
+	 * which are already loaded.
+	 */
+	public void listenTo(World world) {
+		for (Entity entity : world.loadedEntityList) {
+			onEntityAdded(entity);
+		}
+		world.addEventListener(this);
+	}
+
+	@Override
+	public abstract void onEntityAdded(Entity entity);
+
+	@Override
+	public abstract void onEntityRemoved(Entity entity);
+
+	// Other world events are not used
+
+	@Override
+	public void notifyBlockUpdate(World world, BlockPos pos, IBlockState oldState, IBlockState newState,
+								  int flags) {
+	}
+
+	@Override
+	public void notifyLightSet(BlockPos pos) {
+	}
+
+	@Override
+	public void markBlockRangeForRenderUpdate(int x1, int y1, int z1, int x2, int y2, int z2) {
+	}
+
+	@Override
+	public void playSoundToAllNearExcept(@Nullable EntityPlayer player, SoundEvent sound, SoundCategory category,
+										 double x, double y, double z, float volume, float pitch) {
+	}
+
+	@Override
+	public void playRecord(SoundEvent sound, BlockPos pos) {
+	}
+
+	@Override
+	public void spawnParticle(int particleId, boolean ignoreRange, double x, double y, double z, double xSpeed,
+							  double ySpeed, double zSpeed, int... parameters) {
+	}
+
+	@Override
+	public void spawnParticle(int id, boolean ignoreRange, boolean minimiseParticleLevel, double x, double y,
+							  double z, double xSpeed, double ySpeed, double zSpeed, int... parameters) {
+	}
+
+	@Override
+	public void broadcastSound(int soundId, BlockPos pos, int data) {
+	}
+
+	@Override
+	public void playEvent(EntityPlayer player, int type, BlockPos pos, int data) {
+	}
+
+	@Override
+	public void sendBlockBreakProgress(int breakerId, BlockPos pos, int progress) {
+	}
+
+}
@@ -22,6 +22,7 @@ import net.minecraftforge.fml.common.Mod.EventHandler;
 import net.minecraftforge.fml.common.event.*;
 
 import com.crowsofwar.gorecore.config.convert.ConverterRegistry;
+import com.crowsofwar.gorecore.data.PlayerFileWriter;
 import com.crowsofwar.gorecore.format.ChatSender;
 import com.crowsofwar.gorecore.proxy.GoreCoreCommonProxy;
 import com.crowsofwar.gorecore.settings.GoreCoreModConfig;
@@ -67,4 +68,10 @@ public class GoreCore {
 		event.registerServerCommand(new GoreCoreCommand());
 	}
 
+	@EventHandler
+	public void onServerStopped(FMLServerStoppedEvent event) {
+		// Player data of the final save may still be being written
+		PlayerFileWriter.finishWrites();
+	}
+
 }
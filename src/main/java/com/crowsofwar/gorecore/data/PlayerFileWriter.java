@@ -0,0 +1,177 @@
+/* 
+  This file is part of AvatarMod.
+    
+  AvatarMod is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+  
+  AvatarMod is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+  
+  You should have received a copy of the GNU General Public License
+  along with AvatarMod. If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package com.crowsofwar.gorecore.data;
+
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+
+import com.crowsofwar.gorecore.GoreCore;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Compresses and writes player data files on a background thread, so saving doesn't stall the
+ * server thread.
+ * <p>
+ * The server thread hands over a snapshot of the data, which isn't modified afterwards. If a
+ * newer snapshot of a file is handed over before the previous one was written, only the newer
+ * one is written. If writing a snapshot fails, it is kept until {@link #retryFailedWrites()}
+ * is called, so the changes aren't lost.
+ *
+ * @author CrowsOfWar
+ */
+public class PlayerFileWriter {
+
+	private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "GoreCore Player Data Writer");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * Latest snapshots which haven't been written yet. A snapshot is only removed once it has
+	 * been written, so reading a file can use the pending snapshot instead.
+	 */
+	private static final Map<File, NBTTagCompound> pending = new ConcurrentHashMap<>();
+
+	/**
+	 * Files whose pending snapshot couldn't be written, and which aren't queued to be written
+	 */
+	private static final Set<File> failed = ConcurrentHashMap.newKeySet();
+
+	private PlayerFileWriter() {
+	}
+
+	/**
+	 * Queues the snapshot to be written to the file. The snapshot must not be modified afterwards.
+	 */
+	public static void write(File file, NBTTagCompound snapshot) {
+		boolean wasFailed = failed.remove(file);
+		if (pending.put(file, snapshot) == null || wasFailed) {
+			executor.execute(() -> writePending(file));
+		}
+	}
+
+	/**
+	 * Queues files whose snapshots couldn't be written to be written again.
+	 */
+	public static void retryFailedWrites() {
+		Iterator<File> iterator = failed.iterator();
+		while (iterator.hasNext()) {
+			File file = iterator.next();
+			iterator.remove();
+			executor.execute(() -> writePending(file));
+		}
+	}
+
+	/**
+	 * Reads the file, or the snapshot which is waiting to be written to it. Returns null if
+	 * there is no such file.
+	 */
+	public static NBTTagCompound read(File file) throws IOException {
+		NBTTagCompound snapshot = pending.get(file);
+		if (snapshot != null) {
+			return snapshot.copy();
+		}
+		if (!file.exists()) {
+			return null;
+		}
+		try (FileInputStream in = new FileInputStream(file)) {
+			return CompressedStreamTools.readCompressed(in);
+		}
+	}
+
+	/**
+	 * Returns whether the file exists or a snapshot is waiting to be written to it.
+	 */
+	public static boolean exists(File file) {
+		return pending.containsKey(file) || file.exists();
+	}
+
+	/**
+	 * Blocks until all queued snapshots have been written. Snapshots which couldn't be written
+	 * before are tried again. Returns whether every snapshot was written.
+	 */
+	public static boolean finishWrites() {
+		retryFailedWrites();
+		try {
+			executor.submit(() -> {}).get();
+		} catch (InterruptedException | ExecutionException e) {
+			GoreCore.LOGGER.error("Interrupted while waiting for player data to be written", e);
+			return false;
+		}
+		return failed.isEmpty();
+	}
+
+	private static void writePending(File file) {
+		NBTTagCompound snapshot = pending.get(file);
+		while (snapshot != null) {
+
+			if (!writeFile(file, snapshot)) {
+				// Keep the snapshot, so it is still read and can be written later
+				failed.add(file);
+				break;
+			}
+
+			// If a newer snapshot was queued while writing, write that too
+			if (pending.remove(file, snapshot)) {
+				break;
+			}
+			snapshot = pending.get(file);
+
+		}
+	}
+
+	/**
+	 * Writes to a temporary file first and then moves it over the file, so the previous file
+	 * isn't lost if writing fails. Returns whether the file was written.
+	 */
+	private static boolean writeFile(File file, NBTTagCompound nbt) {
+		File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+		try {
+			file.getParentFile().mkdirs();
+			try (FileOutputStream out = new FileOutputStream(temp)) {
+				CompressedStreamTools.writeCompressed(nbt, out);
+			}
+			try {
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+						StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			return true;
+		} catch (IOException e) {
+			GoreCore.LOGGER.error("Could not write player data file " + file, e);
+			return false;
+		}
+	}
+
+}
@@ -19,15 +19,28 @@ package com.crowsofwar.gorecore.data;
 
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.server.MinecraftServer;
+import net.minecraftforge.common.DimensionManager;
+import net.minecraftforge.fml.common.FMLCommonHandler;
 
 import com.crowsofwar.gorecore.GoreCore;
 import com.crowsofwar.gorecore.util.*;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.*;
 
 /**
  * A world data class which comes equipped with the ability to save and load
  * player data.
+ * <p>
+ * By default, all player data is saved inside the world data's NBT. If
+ * {@link #usePlayerFiles()} is enabled, each player's data is instead saved to its own file,
+ * which is only written when that player's data has changed. Player data is then loaded from
+ * its file when first requested, and unloaded when the player leaves. Switching between the
+ * two moves existing player data over. Player files are written
+ * in the background by {@link PlayerFileWriter}.
  *
  * @param <T> The type of your player data
  * @author CrowsOfWar
@@ -36,19 +49,79 @@ public abstract class WorldDataPlayers<T extends PlayerData> extends WorldData {
 
 	private Map<UUID, PlayerData> players;
 
+	/**
+	 * When using player files, player data which has changed since its file was last written.
+	 * Unloaded player data is kept here until written, so no changes are lost.
+	 */
+	private final Map<UUID, PlayerData> dirtyPlayers;
+
+	/**
+	 * When not using player files, player files which were read back into the NBT and are
+	 * renamed once the NBT has been written, so they don't override newer data if player files
+	 * are enabled again.
+	 */
+	private final List<File> migratedFiles;
+
+	/**
+	 * When using player files, player data from the NBT which was moved into player files. It is
+	 * still written to the NBT until the files are confirmed to be written, so it isn't lost if
+	 * the server stops before that.
+	 */
+	private NBTTagList legacyPlayerData;
+
 	public WorldDataPlayers(String key) {
 		super(key);
 		players = new HashMap<>();
+		dirtyPlayers = new HashMap<>();
+		migratedFiles = new ArrayList<>();
 	}
 
 	@Override
 	public void readFromNBT(NBTTagCompound nbt) {
-		players = GoreCoreNBTUtil.readMapFromNBT(nbt, PlayerData.MAP_USER, "PlayerData", new Object[] {}, new Object[] { playerDataClass(), this });
+		if (usePlayerFiles()) {
+
+			players = new HashMap<>();
+
+			// Move player data saved before player files were enabled into the files. If a player
+			// already has a file, it is newer than the data in the NBT.
+			NBTTagList legacyList = nbt.getTagList("PlayerData", 10);
+			NBTTagList moved = new NBTTagList();
+			for (int i = 0; i < legacyList.tagCount(); i++) {
+				NBTTagCompound entry = legacyList.getCompoundTagAt(i);
+				UUID player = GoreCoreNBTUtil.readUUIDFromNBT(entry.getCompoundTag("Key"), "KeyUUID");
+				File file = getPlayerFile(player);
+				if (file != null && PlayerFileWriter.exists(file)) {
+					continue;
+				}
+				T data = constructPlayerData(player, null);
+				if (data != null) {
+					data.readFromNBT(entry.getCompoundTag("Val"));
+					dirtyPlayers.put(player, data);
+					moved.appendTag(entry);
+				}
+			}
+			if (moved.tagCount() > 0) {
+				legacyPlayerData = moved;
+				markDirty();
+			}
+
+		} else {
+			players = GoreCoreNBTUtil.readMapFromNBT(nbt, PlayerData.MAP_USER, "PlayerData", new Object[] {}, new Object[] { playerDataClass(), this });
+			readPlayerFilesBack();
+		}
 	}
 
 	@Override
 	public NBTTagCompound writeToNBT(NBTTagCompound nbt) {
-		GoreCoreNBTUtil.writeMapToNBT(nbt, players, PlayerData.MAP_USER, "PlayerData");
+		if (usePlayerFiles()) {
+			PlayerFileWriter.retryFailedWrites();
+			writeDirtyPlayers();
+			unloadOfflinePlayers();
+			writeLegacyPlayerData(nbt);
+		} else {
+			GoreCoreNBTUtil.writeMapToNBT(nbt, players, PlayerData.MAP_USER, "PlayerData");
+			retireMigratedFiles();
+		}
 		return nbt;
 	}
 
@@ -59,7 +132,7 @@ public abstract class WorldDataPlayers<T extends PlayerData> extends WorldData {
 	 * @return Player data for that player
 	 */
 	public T getPlayerData(UUID player) {
-		if (players.containsKey(player)) {
+		if (players.containsKey(player) || loadPlayerData(player)) {
 			T data = getPlayerDataWithoutCreate(player);
 			if (getWorld() != null) data.setPlayerEntity(AccountUUIDs.findEntityFromUUID(getWorld(), player));
 			return data;
@@ -67,7 +140,11 @@ public abstract class WorldDataPlayers<T extends PlayerData> extends WorldData {
 			T data = createNewPlayerData(player);
 			players.put(player, data);
 			if (getWorld() != null) data.setPlayerEntity(AccountUUIDs.findEntityFromUUID(getWorld(), player));
-			saveChanges();
+			if (usePlayerFiles()) {
+				data.saveChanges();
+			} else {
+				saveChanges();
+			}
 			return data;
 		}
 	}
@@ -80,6 +157,9 @@ public abstract class WorldDataPlayers<T extends PlayerData> extends WorldData {
 	 * @return Player data for the player, or null if it does not exist
 	 */
 	public T getPlayerDataWithoutCreate(UUID player) {
+		if (!players.containsKey(player)) {
+			loadPlayerData(player);
+		}
 		T data = (T) players.get(player);
 		if (data != null && data.getPlayerEntity() == null) {
 			data.setPlayerEntity(AccountUUIDs.findEntityFromUUID(getWorld(), player));
@@ -89,13 +169,44 @@ public abstract class WorldDataPlayers<T extends PlayerData> extends WorldData {
 
 	public abstract Class<? extends PlayerData> playerDataClass();
 
+	/**
+	 * Whether each player's data is saved to its own file, rather than all player data being
+	 * saved in this world data's NBT. Player data in the NBT is moved to player files once this
+	 * is enabled, and moved back into the NBT if it is disabled again.
+	 */
+	protected boolean usePlayerFiles() {
+		return false;
+	}
+
+	/**
+	 * When using player files, saves the player's data if it has changed and removes it from
+	 * memory. It will be loaded from its file again when next requested. Does nothing otherwise.
+	 */
+	public void unloadPlayerData(UUID player) {
+		if (usePlayerFiles()) {
+			players.remove(player);
+			PlayerData data = dirtyPlayers.get(player);
+			if (data != null && writePlayerFile(player, data)) {
+				dirtyPlayers.remove(player);
+			}
+		}
+	}
+
 	private T createNewPlayerData(UUID player) {
+		EntityPlayer playerEntity = AccountUUIDs.findEntityFromUUID(getWorld(), player);
+		if (playerEntity == null) GoreCore.LOGGER.warn("WARNING: playerEntity was null while creating new player data");
+		return constructPlayerData(player, playerEntity);
+	}
+
+	private T constructPlayerData(UUID player, EntityPlayer playerEntity) {
 		try {
 
-			EntityPlayer playerEntity = AccountUUIDs.findEntityFromUUID(getWorld(), player);
-			if (playerEntity == null) GoreCore.LOGGER.warn("WARNING: playerEntity was null while creating new player data");
+			PlayerDataSaver saver = usePlayerFiles() ? new PlayerDataSaver(player) : null;
 			PlayerData data = playerDataClass().getConstructor(DataSaver.class, UUID.class, EntityPlayer.class)
-							.newInstance(this, player, playerEntity);
+							.newInstance(saver == null ? this : saver, player, playerEntity);
+			if (saver != null) {
+				saver.data = data;
+			}
 			return (T) data;
 
 		} catch (Exception e) {
@@ -105,4 +216,270 @@ public abstract class WorldDataPlayers<T extends PlayerData> extends WorldData {
 		}
 	}
 
+	/**
+	 * When using player files, tries to bring the player's data into memory, either from data
+	 * which was unloaded but not yet written, or from the player's file. Returns whether the
+	 * data was found.
+	 */
+	private boolean loadPlayerData(UUID player) {
+		if (!usePlayerFiles()) {
+			return false;
+		}
+
+		PlayerData data = dirtyPlayers.get(player);
+		if (data == null) {
+			File file = getPlayerFile(player);
+			if (file == null) {
+				return false;
+			}
+			data = readPlayerFile(player, file);
+			if (data == null) {
+				return false;
+			}
+		}
+
+		players.put(player, data);
+		return true;
+	}
+
+	/**
+	 * Reads the player's data from the file, or returns null if there is no such file. Like
+	 * vanilla player data, a file which can't be read is renamed to <code>.corrupt</code> so it
+	 * isn't overwritten, and null is returned so the player gets new data.
+	 */
+	private T readPlayerFile(UUID player, File file) {
+		NBTTagCompound nbt;
+		try {
+			nbt = PlayerFileWriter.read(file);
+		} catch (IOException e) {
+			GoreCore.LOGGER.error("Could not read player data file " + file, e);
+			setAsideCorruptFile(file);
+			return null;
+		}
+		if (nbt == null) {
+			return null;
+		}
+
+		T data = constructPlayerData(player, null);
+		if (data == null) {
+			return null;
+		}
+		try {
+			data.readFromNBT(nbt);
+		} catch (RuntimeException e) {
+			GoreCore.LOGGER.error("Could not read player data from file " + file, e);
+			setAsideCorruptFile(file);
+			return null;
+		}
+		return data;
+	}
+
+	private void setAsideCorruptFile(File file) {
+		File corrupt = new File(file.getParentFile(), file.getName() + ".corrupt");
+		if (file.exists() && !file.renameTo(corrupt)) {
+			GoreCore.LOGGER.warn("Could not rename corrupt player data file " + file);
+		}
+	}
+
+	/**
+	 * When player files have been disabled, reads back player data which was saved to player
+	 * files while they were enabled. The files are newer than any player data in the NBT.
+	 */
+	private void readPlayerFilesBack() {
+		File directory = getPlayerDirectory();
+		if (directory == null) {
+			return;
+		}
+
+		PlayerFileWriter.finishWrites();
+		File[] files = directory.listFiles((dir, name) -> name.endsWith(".dat"));
+		if (files == null) {
+			return;
+		}
+
+		for (File file : files) {
+			UUID player;
+			try {
+				player = UUID.fromString(file.getName().substring(0, file.getName().length() - 4));
+			} catch (IllegalArgumentException e) {
+				continue;
+			}
+
+			// Not using player files, so the data is saved along with the NBT
+			T data = readPlayerFile(player, file);
+			if (data != null) {
+				players.put(player, data);
+				migratedFiles.add(file);
+			}
+		}
+
+		if (!migratedFiles.isEmpty()) {
+			GoreCore.LOGGER.info("Moved " + migratedFiles.size() + " player data files back into " + mapName);
+			markDirty();
+		}
+	}
+
+	/**
+	 * Renames player files which were read back into the NBT, now that it has been written.
+	 */
+	private void retireMigratedFiles() {
+		for (File file : migratedFiles) {
+			File renamed = new File(file.getParentFile(), file.getName() + ".migrated");
+			if (!file.renameTo(renamed)) {
+				GoreCore.LOGGER.warn("Could not rename migrated player data file " + file);
+			}
+		}
+		migratedFiles.clear();
+	}
+
+	/**
+	 * While moving player data from the NBT into player files, waits for the files to be written,
+	 * and keeps the player data in the NBT if they couldn't be.
+	 */
+	private void writeLegacyPlayerData(NBTTagCompound nbt) {
+		if (legacyPlayerData != null) {
+			if (PlayerFileWriter.finishWrites()) {
+				GoreCore.LOGGER.info("Moved " + legacyPlayerData.tagCount() + " players' data from " + mapName
+						+ " into player data files");
+				legacyPlayerData = null;
+			} else {
+				nbt.setTag("PlayerData", legacyPlayerData);
+			}
+		}
+	}
+
+	private void writeDirtyPlayers() {
+		Iterator<Map.Entry<UUID, PlayerData>> iterator = dirtyPlayers.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<UUID, PlayerData> entry = iterator.next();
+			if (writePlayerFile(entry.getKey(), entry.getValue())) {
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Removes player data of players who aren't online. Dirty data must be written first, since
+	 * only players without changes are removed.
+	 */
+	private void unloadOfflinePlayers() {
+		MinecraftServer server = FMLCommonHandler.instance().getMinecraftServerInstance();
+		if (server != null) {
+			Set<UUID> online = new HashSet<>();
+			for (EntityPlayer player : server.getPlayerList().getPlayers()) {
+				online.add(AccountUUIDs.getId(player.getName()).getUUID());
+			}
+			players.keySet().removeIf(player -> !dirtyPlayers.containsKey(player) && !online.contains(player));
+		}
+	}
+
+	/**
+	 * Takes a snapshot of the player data, which is written to its file in the background.
+	 * Returns whether the snapshot was taken. If the snapshot can't be written, PlayerFileWriter
+	 * keeps it and writes it again on the next save.
+	 */
+	private boolean writePlayerFile(UUID player, PlayerData data) {
+		File file = getPlayerFile(player);
+		if (file == null) {
+			return false;
+		}
+
+		NBTTagCompound nbt = new NBTTagCompound();
+		data.writeToNBT(nbt);
+		PlayerFileWriter.write(file, nbt);
+		return true;
+	}
+
+	/**
+	 * Gets the file which the player's data is saved to, or null if no world is loaded.
+	 */
+	private File getPlayerFile(UUID player) {
+		File directory = getPlayerDirectory();
+		return directory == null ? null : new File(directory, player + ".dat");
+	}
+
+	/**
+	 * Gets the directory which player files are saved to, or null if no world is loaded.
+	 */
+	private File getPlayerDirectory() {
+		File saveDirectory = DimensionManager.getCurrentSaveRootDirectory();
+		if (saveDirectory == null) {
+			return null;
+		}
+		return new File(saveDirectory, "data/" + mapName + "Players");
+	}
+
+	/**
+	 * Saves a single player's data when using player files, marking only that player's data as
+	 * changed.
+	 */
+	private class PlayerDataSaver implements DataSaver {
+
+		private final UUID player;
+		private PlayerData data;
+
+		private PlayerDataSaver(UUID player) {
+			this.player = player;
+		}
+
+		@Override
+		public void saveChanges() {
+			if (data != null) {
+				dirtyPlayers.put(player, data);
+				markDirty();
+			}
+		}
+
+		@Override
+		public int getInt(String key) {
+			return WorldDataPlayers.this.getInt(key);
+		}
+
+		@Override
+		public void setInt(String key, int value) {
+			WorldDataPlayers.this.setInt(key, value);
+		}
+
+		@Override
+		public String getString(String key) {
+			return WorldDataPlayers.this.getString(key);
+		}
+
+		@Override
+		public void setString(String key, String value) {
+			WorldDataPlayers.this.setString(key, value);
+		}
+
+		@Override
+		public float getFloat(String key) {
+			return WorldDataPlayers.this.getFloat(key);
+		}
+
+		@Override
+		public void setFloat(String key, float value) {
+			WorldDataPlayers.this.setFloat(key, value);
+		}
+
+		@Override
+		public double getDouble(String key) {
+			return WorldDataPlayers.this.getDouble(key);
+		}
+
+		@Override
+		public void setDouble(String key, double value) {
+			WorldDataPlayers.this.setDouble(key, value);
+		}
+
+		@Override
+		public long getLong(String key) {
+			return WorldDataPlayers.this.getLong(key);
+		}
+
+		@Override
+		public void setLong(String key, long value) {
+			WorldDataPlayers.this.setLong(key, value);
+		}
+
+	}
+
 }
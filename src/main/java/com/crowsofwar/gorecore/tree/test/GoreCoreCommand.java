@@ -16,10 +16,14 @@
 */
 package com.crowsofwar.gorecore.tree.test;
 
-import com.crowsofwar.gorecore.format.FormattedMessage;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.server.MinecraftServer;
+
 import com.crowsofwar.gorecore.tree.*;
 import com.crowsofwar.gorecore.util.AccountUUIDs;
 
+import java.util.concurrent.CompletableFuture;
+
 import static com.crowsofwar.gorecore.tree.test.GoreCoreChatMessages.*;
 
 /**
@@ -51,13 +55,21 @@ public class GoreCoreCommand extends TreeCommand {
 						return;
 					}
 					
-					FormattedMessage msg;
-					if (AccountUUIDs.getId(username).isTemporary()) {
-						msg = AccountUUIDs.tryFixId(username) ? MSG_FIXID_SUCCESS : MSG_FIXID_FAILURE;
-					} else {
-						msg = MSG_FIXID_ONLINE;
-					}
-					msg.send(popper.from(), username);
+					// Looking up the ID could take a while, so don't wait for it on the server thread
+					ICommandSender from = popper.from();
+					AccountUUIDs.getIdAsync(username).thenCompose(id -> {
+						if (id.isTemporary()) {
+							return AccountUUIDs.tryFixIdAsync(username)
+									.thenApply(fixed -> fixed ? MSG_FIXID_SUCCESS : MSG_FIXID_FAILURE);
+						} else {
+							return CompletableFuture.completedFuture(MSG_FIXID_ONLINE);
+						}
+					}).thenAccept(msg -> {
+						MinecraftServer server = from.getServer();
+						if (server != null) {
+							server.addScheduledTask(() -> msg.send(from, username));
+						}
+					});
 					
 				});
 		
@@ -18,7 +18,13 @@
 package com.crowsofwar.gorecore.util;
 
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.world.World;
+import net.minecraftforge.event.entity.EntityJoinWorldEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.EventPriority;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 
 import com.crowsofwar.gorecore.GoreCore;
 import com.crowsofwar.gorecore.settings.GoreCoreModConfig;
@@ -26,6 +32,7 @@ import com.crowsofwar.gorecore.settings.GoreCoreModConfig;
 import java.io.*;
 import java.net.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * <p>
@@ -36,72 +43,158 @@ import java.util.*;
  *
  * <p>
  * UUID results are stored in a cache file, and are loaded from the cache as
- * well.
+ * well. New results are appended to the cache file as they are found, and the
+ * file is occasionally rewritten to remove outdated lines.
+ * </p>
+ *
+ * <p>
+ * Requests to Mojang's API are made on background threads. Use
+ * {@link #getIdAsync(String)} to avoid waiting for them; concurrent requests
+ * for the same username share one HTTP request.
  * </p>
  *
  * @author CrowsOfWar
  */
+@Mod.EventBusSubscriber(modid = GoreCore.MOD_ID)
 public final class AccountUUIDs {
 
+	/**
+	 * How long until failed lookups are tried again. Retrying temporary IDs
+	 * happens in the background and doesn't change the ID used.
+	 */
+	private static final long FAILED_LOOKUP_TTL = 60 * 1000;
+	/**
+	 * How long usernames looked up by {@link #getUsername(UUID)} are cached.
+	 * Players can change their name, so this is kept short.
+	 */
+	private static final long USERNAME_TTL = 10 * 60 * 1000;
+	/**
+	 * Connect and read timeout for requests to the API, in milliseconds
+	 */
+	private static final int REQUEST_TIMEOUT = 5000;
+
 	/**
 	 * The cache of usernames -> account IDs, which is also saved to a cache
 	 * file. Never exceeds {@link GoreCoreModConfig#MAX_UUID_CACHE_SIZE maximum
 	 * cache size}.
 	 */
-	private static final Map<String, AccountId> idCache = new HashMap<>();
+	private static final Map<String, AccountId> idCache = new ConcurrentHashMap<>();
+
+	/**
+	 * Lookups which are currently in progress, so that concurrent lookups of the
+	 * same player can share the request
+	 */
+	private static final Map<String, CompletableFuture<AccountId>> pendingIds = new ConcurrentHashMap<>();
+	private static final Map<UUID, CompletableFuture<String>> pendingUsernames = new ConcurrentHashMap<>();
+
+	/**
+	 * IDs which are only kept for this session: temporary IDs from failed
+	 * lookups, and IDs of players which didn't fit into the full idCache. These
+	 * never change during the session, except through {@link #tryFixId(String)};
+	 * temporary IDs are looked up again in the background once they expire.
+	 */
+	private static final Map<String, Expiring<AccountId>> sessionIds = new ConcurrentHashMap<>();
+	/**
+	 * Real IDs which were found by retrying temporary IDs in the background, and
+	 * can be used by {@link #tryFixId(String)}
+	 */
+	private static final Map<String, AccountId> foundIds = new ConcurrentHashMap<>();
+	private static final Map<UUID, Expiring<String>> usernameCache = new ConcurrentHashMap<>();
+
+	private static final ExecutorService requestExecutor = Executors.newFixedThreadPool(2,
+			daemonThreads("GoreCore UUID Lookup"));
+	/**
+	 * Writes to the cache file. Single threaded so that appends and rewrites
+	 * happen in order.
+	 */
+	private static final ExecutorService cacheFileExecutor = Executors.newSingleThreadExecutor(
+			daemonThreads("GoreCore UUID Cache Writer"));
+	private static final Object cacheFileLock = new Object();
+	/**
+	 * Amount of entry lines in the cache file, including lines which were
+	 * overridden by later lines
+	 */
+	private static int cacheFileLines;
+
+	private static volatile String apiUrl = "https://api.mojang.com";
+
+	/**
+	 * Changes the base URL of the API, which is <code>https://api.mojang.com</code>
+	 * by default. Allows using a mirror or a local server for testing.
+	 */
+	public static void setApiUrl(String url) {
+		apiUrl = url;
+	}
 
 	/**
 	 * Clears the UUID cache, then reads the UUID cache from the cache file
 	 * located in different places for client/server. This is so that the big
 	 * cache list does not have to be re-created every time Minecraft restarts.
+	 * When the same player is in the file several times, the last line is
+	 * used.
 	 *
 	 * @see #saveCache()
 	 */
 	public static void readCache() {
 		BufferedReader br = null;
-		try {
-			GoreCore.LOGGER.info("Reading UUIDs from cache file");
-
-			idCache.clear();
-
-			File file = GoreCore.proxy.getUUIDCacheFile();
-			if (!file.exists()) return;
-
-			br = new BufferedReader(new FileReader(file));
-
-			String line;
-			while ((line = br.readLine()) != null) {
-				if (line.startsWith("#")) continue;
-				if (!line.contains("=")) continue;
-
-				String[] split = line.split("=");
-				if (split.length != 2) continue;
-
-				boolean temp = false;
-				if (line.startsWith("%")) {
-					temp = true;
-					GoreCore.LOGGER.warn("UUID cache for player " + split[0] + " is temporary, connect to the internet to fix this");
-				}
+		synchronized (cacheFileLock) {
+			try {
+				GoreCore.LOGGER.info("Reading UUIDs from cache file");
+
+				idCache.clear();
+				cacheFileLines = 0;
+
+				File file = GoreCore.proxy.getUUIDCacheFile();
+				if (!file.exists()) return;
+
+				br = new BufferedReader(new FileReader(file));
+
+				String line;
+				while ((line = br.readLine()) != null) {
+					if (line.startsWith("#")) continue;
+					if (!line.contains("=")) continue;
+
+					String[] split = line.split("=");
+					if (split.length != 2) continue;
+
+					cacheFileLines++;
+
+					boolean temp = false;
+					if (line.startsWith("%")) {
+						temp = true;
+						split[0] = split[0].substring(1);
+					}
+
+					try {
+						AccountId id = new AccountId(UUID.fromString(split[1]), temp);
+						if (temp) {
+							// Temporary IDs from failed lookups are kept for the session and retried later
+							sessionIds.put(split[0], new Expiring<>(id, FAILED_LOOKUP_TTL));
+						} else {
+							idCache.put(split[0], id);
+						}
+					} catch (IllegalArgumentException e) {
+						GoreCore.LOGGER.warn("UUID cache contains invalidly formatted UUID for player " + split[0] + ", skipping");
+					}
 
-				try {
-					idCache.put(split[0], new AccountId(UUID.fromString(split[1]), temp));
-				} catch (IllegalArgumentException e) {
-					GoreCore.LOGGER.warn("UUID cache contains invalidly formatted UUID for player " + split[0] + ", skipping");
 				}
 
-			}
+				sessionIds.forEach((username, id) -> {
+					GoreCore.LOGGER.warn("UUID cache for player " + username + " is temporary, connect to the internet to fix this");
+				});
 
-			GoreCore.LOGGER.info("Finished reading " + idCache.entrySet().size() + " player UUID(s)");
+				GoreCore.LOGGER.info("Finished reading " + idCache.size() + " player UUID(s)");
 
-		} catch (Exception e) {
-			GoreCore.LOGGER.error("Error reading GoreCore player UUID cache from text file:");
-			e.printStackTrace();
-			GoreCore.LOGGER.error("Please contact Mahtaran for help.");
-		} finally {
-			if (br != null) try {
-				br.close();
-			} catch (IOException e) {
+			} catch (Exception e) {
+				GoreCore.LOGGER.error("Error reading GoreCore player UUID cache from text file:");
 				e.printStackTrace();
+				GoreCore.LOGGER.error("Please contact Mahtaran for help.");
+			} finally {
+				if (br != null) try {
+					br.close();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
 			}
 		}
 	}
@@ -109,43 +202,92 @@ public final class AccountUUIDs {
 	/**
 	 * Saves the cache of UUIDs to a text file for reading later so that the
 	 * UUID cache does not have to be re-built every time Minecraft restarts.
+	 * This rewrites the whole file, removing lines which were overridden.
 	 *
 	 * @see #readCache()
 	 */
 	public static void saveCache() {
-		try {
+		synchronized (cacheFileLock) {
+			try {
+
+				long start = System.currentTimeMillis();
+				GoreCore.LOGGER.info("Saving UUIDs to cache file");
+
+				File file = GoreCore.proxy.getUUIDCacheFile();
+				if (!file.exists()) file.createNewFile();
+
+				BufferedWriter bw = new BufferedWriter(new FileWriter(file));
+
+				// Copy so that the entries written are consistent with cacheFileLines
+				Map<String, AccountId> entries = new HashMap<>(idCache);
+
+				String ln = System.getProperty("line.separator");
+				bw.write("# This holds a cache of all the players' UUIDs determined by GoreCore" + ln);
+				bw.write("# Please do not edit this file, or you may face strange problems like data deletion" + ln);
+				bw.write("# This is re-written occasionally, so any of your comments will not be saved!" + (entries.isEmpty() ? "" : ln + ln));
+
+				for (Map.Entry<String, AccountId> entry : entries.entrySet()) {
+					bw.write(toCacheLine(entry.getKey(), entry.getValue()) + ln);
+				}
+
+				bw.close();
+				cacheFileLines = entries.size();
 
-			long start = System.currentTimeMillis();
-			GoreCore.LOGGER.info("Saving UUIDs to cache file");
+				GoreCore.LOGGER.info("GoreCore: Finished saving UUIDs. Time taken in seconds: %f.", (System.currentTimeMillis() - start) / 1000.0);
 
-			File file = GoreCore.proxy.getUUIDCacheFile();
-			if (!file.exists()) file.createNewFile();
+			} catch (Exception e) {
+				GoreCore.LOGGER.error("Error saving GoreCore player UUID cache to text file", e);
+				GoreCore.LOGGER.error("Please contact CrowsOfWar to fix it.");
+			}
+		}
+	}
 
-			BufferedWriter bw = new BufferedWriter(new FileWriter(file));
+	/**
+	 * Appends the result to the cache file on the cache file thread. If the file
+	 * contains many overridden lines, rewrites it instead.
+	 */
+	private static void appendToCacheFile(String username, AccountId id) {
+		cacheFileExecutor.execute(() -> {
+			synchronized (cacheFileLock) {
 
-			Iterator<Map.Entry<String, AccountId>> entries = idCache.entrySet().iterator();
-			boolean next = entries.hasNext();
+				if (cacheFileLines >= Math.max(64, idCache.size() * 2)) {
+					saveCache();
+					return;
+				}
 
-			String ln = System.getProperty("line.separator");
-			bw.write("# This holds a cache of all the players' UUIDs determined by GoreCore" + ln);
-			bw.write("# Please do not edit this file, or you may face strange problems like data deletion" + ln);
-			bw.write("# This is re-written when Minecraft closes, so any of your comments will not be saved!" + (next ? ln + ln : ""));
+				File file = GoreCore.proxy.getUUIDCacheFile();
+				try (BufferedWriter bw = new BufferedWriter(new FileWriter(file, true))) {
+					bw.write(toCacheLine(username, id) + System.getProperty("line.separator"));
+					cacheFileLines++;
+				} catch (IOException e) {
+					GoreCore.LOGGER.error("Error appending to GoreCore player UUID cache", e);
+				}
 
-			while (next) {
-				Map.Entry<String, AccountId> current = entries.next();
-				next = entries.hasNext();
-				String username = current.getKey();
-				AccountId account = current.getValue();
-				bw.write((account.temporary ? "%" : "") + username + "=" + account.uuid + ln);
 			}
+		});
+	}
+
+	private static String toCacheLine(String username, AccountId id) {
+		return (id.temporary ? "%" : "") + username + "=" + id.uuid;
+	}
 
-			bw.close();
+	/**
+	 * Remembers the account IDs of players joining a server in online mode, since
+	 * their entity UUIDs are verified by Mojang, so that they don't need to be
+	 * requested.
+	 */
+	@SubscribeEvent(priority = EventPriority.HIGHEST)
+	public static void onPlayerJoin(EntityJoinWorldEvent e) {
+		if (e.getEntity() instanceof EntityPlayerMP) {
 
-			GoreCore.LOGGER.info("GoreCore: Finished saving UUIDs. Time taken in seconds: %f.", (System.currentTimeMillis() - start) / 1000.0);
+			EntityPlayerMP player = (EntityPlayerMP) e.getEntity();
+			MinecraftServer server = player.getServer();
+			String username = player.getName();
+
+			if (server != null && server.isServerInOnlineMode() && !idCache.containsKey(username)) {
+				cacheResults(username, new AccountId(player.getGameProfile().getId()));
+			}
 
-		} catch (Exception e) {
-			GoreCore.LOGGER.error("Error saving GoreCore player UUID cache to text file", e);
-			GoreCore.LOGGER.error("Please contact CrowsOfWar to fix it.");
 		}
 	}
 
@@ -178,7 +320,7 @@ public final class AccountUUIDs {
 	 * <p>
 	 * Gets the UUID of the player with the given username. If it exists in the
 	 * cache, the UUID will be obtained via the cache; otherwise, a HTTP request
-	 * will be made to obtain the UUID.
+	 * will be made to obtain the UUID, and this waits for it to finish.
 	 * </p>
 	 *
 	 * <p>
@@ -188,37 +330,110 @@ public final class AccountUUIDs {
 	 *
 	 * @param username The username to get the UUID for
 	 * @return The UUID result of the getting
+	 * @see #getIdAsync(String)
 	 */
 	public static AccountUUIDs.AccountId getId(String username) {
-		if (idCache.containsKey(username)) {
-			return idCache.get(username);
-		} else {
+		AccountId cached = idCache.get(username);
+		if (cached != null) {
+			return cached;
+		}
+		return getIdAsync(username).join();
+	}
+
+	/**
+	 * Gets the UUID of the player with the given username, like
+	 * {@link #getId(String)}, without waiting for the HTTP request. The future
+	 * is already completed if the UUID is cached, or if a lookup already failed
+	 * this session; then the same temporary ID is used until the server stops,
+	 * or it is fixed by {@link #tryFixId(String)}.
+	 */
+	public static CompletableFuture<AccountId> getIdAsync(String username) {
+		AccountId cached = idCache.get(username);
+		if (cached != null) {
+			return CompletableFuture.completedFuture(cached);
+		}
+
+		Expiring<AccountId> session = sessionIds.get(username);
+		if (session != null) {
+			if (session.value.isTemporary() && session.isExpired()) {
+				retryInBackground(username, session);
+			}
+			return CompletableFuture.completedFuture(session.value);
+		}
+
+		return coalesce(pendingIds, username, () -> {
 			UUID found = requestId(username);
-			return cacheResults(username, found == null ? new AccountId(username) : new AccountId(found));
+			if (found == null) {
+				AccountId id = new AccountId(username);
+				sessionIds.put(username, new Expiring<>(id, FAILED_LOOKUP_TTL));
+				return id;
+			}
+
+			AccountId id = new AccountId(found);
+			if (!cacheResults(username, id)) {
+				sessionIds.put(username, new Expiring<>(id, FAILED_LOOKUP_TTL));
+			}
+			return id;
+		});
+	}
+
+	/**
+	 * Looks up the real ID of a player with a temporary ID, so that
+	 * {@link #tryFixId(String)} can use it. The temporary ID is still used until
+	 * then, so that the player's data doesn't move in the middle of the session.
+	 */
+	private static void retryInBackground(String username, Expiring<AccountId> session) {
+		// Only retry once per interval
+		if (!sessionIds.replace(username, session, new Expiring<>(session.value, FAILED_LOOKUP_TTL))) {
+			return;
 		}
+		requestExecutor.execute(() -> {
+			UUID found = requestId(username);
+			if (found != null && foundIds.put(username, new AccountId(found)) == null) {
+				GoreCore.LOGGER.info("Found the real UUID of player " + username + ", who has a temporary UUID;"
+						+ " use /gorecore fixid " + username + " to fix it");
+			}
+		});
 	}
 
 	/**
 	 * Gets the AccountId of that player. If it is temporary, tries to send a
-	 * request to Mojang's API and fix the UUID.
+	 * request to Mojang's API and fix the UUID. This is the only way that a
+	 * player's ID changes during a session.
 	 *
 	 * @param username the name of that player
 	 * @return true if the id was temporary AND it was successfully changed
 	 */
 	public static boolean tryFixId(String username) {
-		AccountId id = getId(username);
-		if (id.isTemporary()) {
-			UUID found = requestId(username);
-			if (found == null) {
-				return false;
-			} else {
-				// TODO Fix clients' saved UUIDs
-				cacheResults(username, new AccountId(found));
-				return true;
+		return tryFixIdAsync(username).join();
+	}
+
+	/**
+	 * Like {@link #tryFixId(String)}, without waiting for the HTTP request.
+	 */
+	public static CompletableFuture<Boolean> tryFixIdAsync(String username) {
+		return getIdAsync(username).thenComposeAsync(id -> {
+			if (!id.isTemporary()) {
+				return CompletableFuture.completedFuture(false);
 			}
-		} else {
-			return false;
-		}
+			return coalesce(pendingIds, username, () -> {
+				AccountId fixed = foundIds.remove(username);
+				if (fixed == null) {
+					UUID found = requestId(username);
+					if (found == null) {
+						return id;
+					}
+					fixed = new AccountId(found);
+				}
+				// TODO Fix clients' saved UUIDs
+				if (cacheResults(username, fixed)) {
+					sessionIds.remove(username);
+				} else {
+					sessionIds.put(username, new Expiring<>(fixed, FAILED_LOOKUP_TTL));
+				}
+				return fixed;
+			}).thenApply(result -> !result.isTemporary());
+		}, requestExecutor);
 	}
 
 	/**
@@ -228,51 +443,53 @@ public final class AccountUUIDs {
 	 *
 	 * @param username The username to store in the cache (key)
 	 * @param id       The account ID to store in the cache (value)
-	 * @return id parameter
+	 * @return Whether the results were cached
 	 */
-	private static AccountId cacheResults(String username, AccountId id) {
-		if (idCache.size() < GoreCore.config.MAX_UUID_CACHE_SIZE) {
+	private static boolean cacheResults(String username, AccountId id) {
+		if (idCache.containsKey(username) || idCache.size() < GoreCore.config.MAX_UUID_CACHE_SIZE) {
 			idCache.put(username, id);
+			appendToCacheFile(username, id);
+			return true;
 		}
-		return id;
+		return false;
 	}
 
 	/**
-	 * Sends a request to Mojang's API and get the player's UUID. Returns null
-	 * if any error occurred.
+	 * Runs the request on the request threads, unless a request for the same
+	 * key is already running, in which case that request's future is returned.
 	 */
-	private static UUID requestId(String username) {
-		try {
-			String url = "https://api.mojang.com/users/profiles/minecraft/" + username;
-
-			URL obj = new URL(url);
-			HttpURLConnection connection = (HttpURLConnection) obj.openConnection();
-
-			connection.setRequestMethod("GET");
-			connection.setRequestProperty("User-Agent", "Mozilla/5.0");
-
-			int responseCode = connection.getResponseCode();
-			BufferedReader br = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-
-			String line;
-			StringBuilder response = new StringBuilder();
-			while ((line = br.readLine()) != null) response.append(line);
-			br.close();
+	private static <K, V> CompletableFuture<V> coalesce(Map<K, CompletableFuture<V>> pending, K key,
+														Callable<V> request) {
 
-			// For normal webpages, it would be like
-			// "<html><head>...</head><body><p>HAI</p></body></html>" or
-			// something like that
-			// for this it's a JSON
-			String result = response.toString();
+		CompletableFuture<V> created = new CompletableFuture<>();
+		CompletableFuture<V> existing = pending.putIfAbsent(key, created);
+		if (existing != null) {
+			return existing;
+		}
 
-			if (responseCode == 204) {
-				GoreCore.LOGGER.warn("Attempted to get a UUID for player " + username + ", but that account is not registered");
-				return null;
+		requestExecutor.execute(() -> {
+			try {
+				V result = request.call();
+				pending.remove(key, created);
+				created.complete(result);
+			} catch (Throwable t) {
+				pending.remove(key, created);
+				created.completeExceptionally(t);
 			}
+		});
+		return created;
 
-			if (responseCode != 200) {
-				GoreCore.LOGGER.warn(
-								"Attempted to get a UUID for player " + username + ", but the response code was unexpected (" + responseCode + ")");
+	}
+
+	/**
+	 * Sends a request to Mojang's API and get the player's UUID. Returns null
+	 * if any error occurred.
+	 */
+	private static UUID requestId(String username) {
+		try {
+			String result = request(apiUrl + "/users/profiles/minecraft/" + username,
+					"a UUID for player " + username);
+			if (result == null) {
 				return null;
 			}
 
@@ -297,51 +514,127 @@ public final class AccountUUIDs {
 
 	/**
 	 * Lookup the username based on the account ID. Returns null on errors.
-	 * Warning: is not cached
+	 * Results are cached for a short time. This waits for the HTTP request if
+	 * the username isn't cached.
+	 *
+	 * @see #getUsernameAsync(UUID)
 	 */
 	public static String getUsername(UUID id) {
+		return getUsernameAsync(id).join();
+	}
+
+	/**
+	 * Like {@link #getUsername(UUID)}, without waiting for the HTTP request. The
+	 * future completes with null on errors.
+	 */
+	public static CompletableFuture<String> getUsernameAsync(UUID id) {
+		Expiring<String> cached = usernameCache.get(id);
+		if (cached != null && !cached.isExpired()) {
+			return CompletableFuture.completedFuture(cached.value);
+		}
+
+		return coalesce(pendingUsernames, id, () -> {
+			String username = requestUsername(id);
+			usernameCache.put(id, new Expiring<>(username, username == null ? FAILED_LOOKUP_TTL : USERNAME_TTL));
+			return username;
+		});
+	}
+
+	private static String requestUsername(UUID id) {
 		try {
 
 			String idString = id.toString().replaceAll("-", "");
-			String url = "https://api.mojang.com/user/profiles/" + idString + "/names";
+			String result = request(apiUrl + "/user/profiles/" + idString + "/names", "a username for player " + id);
+			if (result == null) {
+				return null;
+			}
 
-			URL obj = new URL(url);
-			HttpURLConnection connection = (HttpURLConnection) obj.openConnection();
+			String searchFor = "\"name\":\"";
+			int index1 = result.lastIndexOf(searchFor) + searchFor.length();
+			int index2 = result.indexOf('"', index1);
 
-			connection.setRequestMethod("GET");
-			connection.setRequestProperty("User-Agent", "Mozilla/5.0");
+			return result.substring(index1, index2);
 
-			int responseCode = connection.getResponseCode();
-			BufferedReader br = new BufferedReader(new InputStreamReader(connection.getInputStream()));
+		} catch (Exception e) {
+			GoreCore.LOGGER.error("Unexpected error getting username for " + id, e);
+			return null;
+		}
+	}
 
-			String line;
-			StringBuilder response = new StringBuilder();
-			while ((line = br.readLine()) != null) response.append(line);
-			br.close();
+	/**
+	 * Sends a GET request to the API and returns the response, or null if the
+	 * account doesn't exist or the response code was unexpected.
+	 *
+	 * @param description What is being requested, for warnings
+	 */
+	private static String request(String url, String description) throws IOException {
+
+		URL obj = new URL(url);
+		HttpURLConnection connection = (HttpURLConnection) obj.openConnection();
 
-			String result = response.toString();
+		connection.setRequestMethod("GET");
+		connection.setRequestProperty("User-Agent", "Mozilla/5.0");
+		connection.setConnectTimeout(REQUEST_TIMEOUT);
+		connection.setReadTimeout(REQUEST_TIMEOUT);
+
+		try {
+
+			int responseCode = connection.getResponseCode();
 
 			if (responseCode == 204) {
-				GoreCore.LOGGER.warn("Attempted to get a username for player " + id + ", but that account is not registered");
+				GoreCore.LOGGER.warn("Attempted to get " + description + ", but that account is not registered");
 				return null;
 			}
 
 			if (responseCode != 200) {
-				GoreCore.LOGGER.warn(
-								"Attempted to get a username for player " + id + ", but the response code was unexpected (" + responseCode + ")");
+				GoreCore.LOGGER.warn("Attempted to get " + description + ", but the response code was unexpected (" + responseCode + ")");
 				return null;
 			}
 
-			String searchFor = "\"name\":\"";
-			int index1 = result.lastIndexOf(searchFor) + searchFor.length();
-			int index2 = result.indexOf('"', index1);
+			BufferedReader br = new BufferedReader(new InputStreamReader(connection.getInputStream()));
 
-			return result.substring(index1, index2);
+			String line;
+			StringBuilder response = new StringBuilder();
+			while ((line = br.readLine()) != null) response.append(line);
+			br.close();
 
-		} catch (Exception e) {
-			GoreCore.LOGGER.error("Unexpected error getting username for " + id, e);
-			return null;
+			// For normal webpages, it would be like
+			// "<html><head>...</head><body><p>HAI</p></body></html>" or
+			// something like that
+			// for this it's a JSON
+			return response.toString();
+
+		} finally {
+			connection.disconnect();
 		}
+
+	}
+
+	private static ThreadFactory daemonThreads(String name) {
+		return runnable -> {
+			Thread thread = new Thread(runnable, name);
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * A cached value which is only valid for some time
+	 */
+	private static class Expiring<T> {
+
+		private final T value;
+		private final long expiresAt;
+
+		private Expiring(T value, long lifetime) {
+			this.value = value;
+			this.expiresAt = System.currentTimeMillis() + lifetime;
+		}
+
+		private boolean isExpired() {
+			return System.currentTimeMillis() >= expiresAt;
+		}
+
 	}
 
 	public static class AccountId {
@@ -54,4 +54,42 @@ public final class GoreCoreByteBufUtil {
 		buf.writeLong(uuid.getLeastSignificantBits());
 	}
 
+	/**
+	 * Writes the int as a variable-length integer: 7 bits per byte, so small non-negative
+	 * values only take up one byte. Negative values always take 5 bytes; use
+	 * {@link #writeSignedVarInt(ByteBuf, int)} for them.
+	 */
+	public static void writeVarInt(ByteBuf buf, int value) {
+		while ((value & ~0x7F) != 0) {
+			buf.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		buf.writeByte(value);
+	}
+
+	public static int readVarInt(ByteBuf buf) {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			byte b = buf.readByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("VarInt is too big");
+	}
+
+	/**
+	 * Writes the int as a zigzag-encoded variable-length integer, so values close to zero
+	 * (positive or negative) take up few bytes.
+	 */
+	public static void writeSignedVarInt(ByteBuf buf, int value) {
+		writeVarInt(buf, (value << 1) ^ (value >> 31));
+	}
+
+	public static int readSignedVarInt(ByteBuf buf) {
+		int zigzag = readVarInt(buf);
+		return (zigzag >>> 1) ^ -(zigzag & 1);
+	}
+
 }
@@ -0,0 +1,204 @@
+/* 
+  This file is part of AvatarMod.
+    
+  AvatarMod is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as published by
+  the Free Software Foundation, either version 3 of the License, or
+  (at your option) any later version.
+  
+  AvatarMod is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+  
+  You should have received a copy of the GNU General Public License
+  along with AvatarMod. If not, see <http://www.gnu.org/licenses/>.
+*/
+
+package com.crowsofwar.gorecore.util;
+
+import net.minecraft.entity.Entity;
+
+import java.util.ArrayDeque;
+
+import static java.lang.Math.*;
+
+/**
+ * A mutable 3-dimensional vector using doubles. Operations modify the vector in place and
+ * return it, so they can be chained without allocating a new vector for each step like
+ * {@link Vector} does.
+ * <p>
+ * For temporary vectors in code which runs often, use {@link #acquire()} and {@link #release()}
+ * to reuse vectors from a per-thread pool. A released vector must not be used any more.
+ *
+ * @author CrowsOfWar
+ */
+public class MutableVector {
+
+	/**
+	 * Most vectors kept by each thread's pool
+	 */
+	private static final int MAX_POOLED = 64;
+
+	private static final ThreadLocal<ArrayDeque<MutableVector>> pool = ThreadLocal.withInitial(ArrayDeque::new);
+
+	private double x, y, z;
+
+	/**
+	 * Creates a new vector at the origin point.
+	 */
+	public MutableVector() {
+		this(0, 0, 0);
+	}
+
+	public MutableVector(double x, double y, double z) {
+		this.x = x;
+		this.y = y;
+		this.z = z;
+	}
+
+	public MutableVector(Vector vec) {
+		this(vec.x(), vec.y(), vec.z());
+	}
+
+	/**
+	 * Gets a vector from this thread's pool, at the origin point. Call {@link #release()} when
+	 * done with it.
+	 */
+	public static MutableVector acquire() {
+		MutableVector vec = pool.get().poll();
+		return vec == null ? new MutableVector() : vec.set(0, 0, 0);
+	}
+
+	/**
+	 * Returns this vector to this thread's pool. It must not be used afterwards.
+	 */
+	public void release() {
+		ArrayDeque<MutableVector> vectors = pool.get();
+		if (vectors.size() < MAX_POOLED) {
+			vectors.push(this);
+		}
+	}
+
+	public double x() {
+		return x;
+	}
+
+	public double y() {
+		return y;
+	}
+
+	public double z() {
+		return z;
+	}
+
+	public MutableVector set(double x, double y, double z) {
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		return this;
+	}
+
+	public MutableVector set(Vector vec) {
+		return set(vec.x(), vec.y(), vec.z());
+	}
+
+	public MutableVector set(MutableVector vec) {
+		return set(vec.x, vec.y, vec.z);
+	}
+
+	/**
+	 * Sets this vector to the feet position of the entity.
+	 */
+	public MutableVector setEntityPos(Entity entity) {
+		return set(entity.posX, entity.posY, entity.posZ);
+	}
+
+	/**
+	 * Sets this vector to the eye position of the entity.
+	 */
+	public MutableVector setEyePos(Entity entity) {
+		return set(entity.posX, entity.posY + entity.getEyeHeight(), entity.posZ);
+	}
+
+	/**
+	 * Sets this vector to the direction of the given rotations, in radians. Same as
+	 * {@link Vector#toRectangular(double, double)}.
+	 */
+	public MutableVector setRectangular(double yaw, double pitch) {
+		return set(-sin(yaw) * cos(pitch), -sin(pitch), cos(yaw) * cos(pitch));
+	}
+
+	public MutableVector add(double x, double y, double z) {
+		return set(this.x + x, this.y + y, this.z + z);
+	}
+
+	public MutableVector add(Vector vec) {
+		return add(vec.x(), vec.y(), vec.z());
+	}
+
+	public MutableVector add(MutableVector vec) {
+		return add(vec.x, vec.y, vec.z);
+	}
+
+	/**
+	 * Adds the vector multiplied by the scalar.
+	 */
+	public MutableVector addScaled(MutableVector vec, double scalar) {
+		return add(vec.x * scalar, vec.y * scalar, vec.z * scalar);
+	}
+
+	public MutableVector subtract(double x, double y, double z) {
+		return set(this.x - x, this.y - y, this.z - z);
+	}
+
+	public MutableVector subtract(Vector vec) {
+		return subtract(vec.x(), vec.y(), vec.z());
+	}
+
+	public MutableVector subtract(MutableVector vec) {
+		return subtract(vec.x, vec.y, vec.z);
+	}
+
+	public MutableVector multiply(double scalar) {
+		return set(x * scalar, y * scalar, z * scalar);
+	}
+
+	/**
+	 * Makes this vector have a magnitude of 1, keeping its direction. Like
+	 * {@link Vector#normalize()}, the zero vector becomes NaN.
+	 */
+	public MutableVector normalize() {
+		return multiply(1 / magnitude());
+	}
+
+	public double magnitude() {
+		return sqrt(sqrMagnitude());
+	}
+
+	public double sqrMagnitude() {
+		return x * x + y * y + z * z;
+	}
+
+	public double sqrDist(double x, double y, double z) {
+		double dx = this.x - x, dy = this.y - y, dz = this.z - z;
+		return dx * dx + dy * dy + dz * dz;
+	}
+
+	public double sqrDist(MutableVector vec) {
+		return sqrDist(vec.x, vec.y, vec.z);
+	}
+
+	/**
+	 * Creates an immutable copy of this vector.
+	 */
+	public Vector toImmutable() {
+		return new Vector(x, y, z);
+	}
+
+	@Override
+	public String toString() {
+		return "(" + x + ", " + y + ", " + z + ")";
+	}
+
+}